@@ -36,4 +36,10 @@ public class AuthController {
 		AuthResponse response = authService.refreshToken(request);
 		return ResponseEntity.ok(ApiResponse.success("Token refreshed successfully", response));
 	}
+
+	@PostMapping("/logout")
+	public ResponseEntity<ApiResponse<Void>> logout(@Valid @RequestBody RefreshTokenRequest request) {
+		authService.logout(request);
+		return ResponseEntity.ok(ApiResponse.success("Logged out successfully", null));
+	}
 }
@@ -0,0 +1,66 @@
+package com.soundage.api.auth.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Issued refresh tokens (refresh_tokens), by jti. A row is deleted when its
+ * family is revoked or once it has expired.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RefreshTokenRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(UUID jti, UUID familyId, UUID userId, Instant expiresAt) {
+        jdbcTemplate.update("INSERT INTO refresh_tokens (jti, family_id, user_id, expires_at) VALUES (?, ?, ?, ?)",
+                jti, familyId, userId, at(expiresAt));
+    }
+
+    /**
+     * Marks an unexpired token used, replaced by {@code successorJti}, unless it
+     * already was (or was revoked or purged). The row lock makes two concurrent
+     * uses of the same token see exactly one success across nodes.
+     *
+     * @return whether this call used the token
+     */
+    public boolean markUsed(UUID jti, UUID successorJti, Instant now) {
+        return jdbcTemplate.update(
+                "UPDATE refresh_tokens SET used_at = ?, successor_jti = ? WHERE jti = ? AND used_at IS NULL AND expires_at > ?",
+                at(now), successorJti, jti, at(now)) == 1;
+    }
+
+    /** The successor of a token used after {@code usedAfter}, or null if there is none (or it was revoked). */
+    public Successor findSuccessor(UUID jti, Instant usedAfter) {
+        List<Successor> rows = jdbcTemplate.query(
+                "SELECT successor_jti, used_at FROM refresh_tokens WHERE jti = ? AND successor_jti IS NOT NULL AND used_at > ?",
+                (rs, rowNum) -> new Successor(rs.getObject("successor_jti", UUID.class),
+                        rs.getObject("used_at", OffsetDateTime.class).toInstant()),
+                jti, at(usedAfter));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public int deleteFamily(UUID familyId) {
+        return jdbcTemplate.update("DELETE FROM refresh_tokens WHERE family_id = ?", familyId);
+    }
+
+    public int deleteExpired(Instant now) {
+        return jdbcTemplate.update("DELETE FROM refresh_tokens WHERE expires_at <= ?", at(now));
+    }
+
+    private static OffsetDateTime at(Instant instant) {
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    /** Token issued, at {@code issuedAt}, when another was used. */
+    public record Successor(UUID jti, Instant issuedAt) {
+    }
+}
@@ -5,7 +5,10 @@ import com.soundage.api.auth.dto.LoginRequest;
 import com.soundage.api.auth.dto.RefreshTokenRequest;
 import com.soundage.api.auth.dto.SignupRequest;
 import com.soundage.api.config.security.JwtService;
+import com.soundage.api.config.security.VerifiedToken;
 import com.soundage.api.user.dto.UserDto;
+import com.soundage.api.user.entity.User;
+import com.soundage.api.user.service.UserDetailsCache;
 import com.soundage.api.user.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -21,7 +24,9 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthService {
 
 	private final UserService userService;
+	private final UserDetailsCache userDetailsCache;
 	private final JwtService jwtService;
+	private final RefreshTokenStore refreshTokenStore;
 	private final PasswordEncoder passwordEncoder;
 	private final AuthenticationManager authenticationManager;
 
@@ -48,7 +53,7 @@ public class AuthService {
 
 		UserDetails userDetails = userService.loadUserByUsername(request.getEmail());
 		String accessToken = jwtService.generateToken(userDetails);
-		String refreshToken = jwtService.generateRefreshToken(userDetails);
+		String refreshToken = refreshTokenStore.startFamily((User) userDetails);
 
 		return AuthResponse.builder()
 				.accessToken(accessToken)
@@ -58,20 +63,22 @@ public class AuthService {
 
 	public AuthResponse refreshToken(RefreshTokenRequest request) {
 		try {
-			String refreshToken = request.getRefreshToken();
-			if (!jwtService.isRefreshToken(refreshToken)) {
-				throw new RuntimeException("Invalid refresh token");
+			VerifiedToken refreshToken = jwtService.verify(request.getRefreshToken());
+			if (refreshToken == null) {
+				throw new RuntimeException("Invalid or expired refresh token");
 			}
-			String email = jwtService.extractUsername(refreshToken);
-			if (email == null) {
+			if (!refreshToken.isRefreshToken()) {
 				throw new RuntimeException("Invalid refresh token");
 			}
-			UserDetails userDetails = userService.loadUserByUsername(email);
-			if (!jwtService.isTokenValid(refreshToken, userDetails)) {
-				throw new RuntimeException("Invalid or expired refresh token");
+			User user = userDetailsCache.get(refreshToken.subject());
+			if (!user.isEnabled()) {
+				throw new RuntimeException("Account is disabled");
+			}
+			String newRefreshToken = refreshTokenStore.rotate(refreshToken, user);
+			if (newRefreshToken == null) {
+				throw new RuntimeException("Refresh token has been revoked");
 			}
-			String newAccessToken = jwtService.generateToken(userDetails);
-			String newRefreshToken = jwtService.generateRefreshToken(userDetails);
+			String newAccessToken = jwtService.generateToken(user);
 			return AuthResponse.builder()
 					.accessToken(newAccessToken)
 					.refreshToken(newRefreshToken)
@@ -82,4 +89,12 @@ public class AuthService {
 			throw new RuntimeException("Invalid refresh token");
 		}
 	}
+
+	/** Revokes the session (refresh token family) of the given refresh token; invalid tokens are ignored. */
+	public void logout(RefreshTokenRequest request) {
+		VerifiedToken refreshToken = jwtService.verify(request.getRefreshToken());
+		if (refreshToken != null && refreshToken.isRefreshToken()) {
+			refreshTokenStore.revoke(refreshToken);
+		}
+	}
 }
@@ -0,0 +1,153 @@
+package com.soundage.api.auth.service;
+
+import com.soundage.api.auth.repository.RefreshTokenRepository;
+import com.soundage.api.config.security.JwtService;
+import com.soundage.api.config.security.VerifiedToken;
+import com.soundage.api.user.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One-time-use refresh tokens. A login starts a family; each refresh uses the
+ * presented token and issues the next one of the same family. Presenting a
+ * token that was already used revokes its whole family, so a stolen token
+ * stops working for both the thief and the owner. The exception is a token
+ * used again within soundage.auth.refresh-tokens.reuse-grace-seconds, as when
+ * two tabs refresh at once: it gets the same successor as the first use (the
+ * token is rebuilt from the successor's jti and issue time, on any node).
+ * <p>
+ * refresh_tokens is the authority (a conditional update, by primary key, uses
+ * a token at most once across nodes). Used token ids and revoked families are
+ * also kept in memory until the tokens they cover expire, so replays and
+ * revoked sessions are refused with a map lookup. Expired rows and entries are
+ * purged on soundage.auth.refresh-tokens.purge-cron.
+ */
+@Service
+@Slf4j
+public class RefreshTokenStore {
+
+    private final RefreshTokenRepository repository;
+    private final JwtService jwtService;
+    private final Duration reuseGrace;
+    private final Map<UUID, UsedToken> usedTokens = new ConcurrentHashMap<>();
+    /** Revoked family to the latest expiration of a token it may have issued. */
+    private final Map<UUID, Instant> revokedFamilies = new ConcurrentHashMap<>();
+
+    private final Counter rotations;
+    private final Counter graceReuses;
+    private final Counter reuses;
+    private final Counter revokedRejections;
+
+    public RefreshTokenStore(RefreshTokenRepository repository, JwtService jwtService, MeterRegistry meterRegistry,
+            @Value("${soundage.auth.refresh-tokens.reuse-grace-seconds:10}") long reuseGraceSeconds) {
+        this.repository = repository;
+        this.jwtService = jwtService;
+        this.reuseGrace = Duration.ofSeconds(reuseGraceSeconds);
+        this.rotations = meterRegistry.counter("soundage.auth.refresh-tokens.rotations");
+        this.graceReuses = meterRegistry.counter("soundage.auth.refresh-tokens.grace-reuses");
+        this.reuses = meterRegistry.counter("soundage.auth.refresh-tokens.rejections", "reason", "reuse");
+        this.revokedRejections = meterRegistry.counter("soundage.auth.refresh-tokens.rejections", "reason", "revoked");
+        meterRegistry.gauge("soundage.auth.refresh-tokens.used-index.size", usedTokens, Map::size);
+        meterRegistry.gauge("soundage.auth.refresh-tokens.revoked-families.size", revokedFamilies, Map::size);
+    }
+
+    /** Issues the first refresh token of a new family. */
+    @Transactional
+    public String startFamily(User user) {
+        return issue(user, UUID.randomUUID(), UUID.randomUUID(), Instant.now());
+    }
+
+    /**
+     * Uses {@code token} and returns the next refresh token of its family, or
+     * the same one if the token was used less than the grace period ago. Returns
+     * null if the token was used before that (the family is then revoked),
+     * belongs to a revoked family or predates rotation (no jti or family).
+     */
+    @Transactional
+    public String rotate(VerifiedToken token, User user) {
+        if (token.tokenId() == null || token.familyId() == null)
+            return null;
+        if (revokedFamilies.containsKey(token.familyId())) {
+            revokedRejections.increment();
+            return null;
+        }
+        Instant now = Instant.now();
+        UsedToken used = usedTokens.get(token.tokenId());
+        if (used == null) {
+            UUID successorId = UUID.randomUUID();
+            if (repository.markUsed(token.tokenId(), successorId, now)) {
+                afterCommit(() -> usedTokens.put(token.tokenId(), new UsedToken(now, token.expiresAt())));
+                rotations.increment();
+                return issue(user, successorId, token.familyId(), now);
+            }
+        }
+        Instant graceStart = now.minus(reuseGrace);
+        if (!reuseGrace.isZero() && (used == null || used.usedAt.isAfter(graceStart))) {
+            RefreshTokenRepository.Successor successor = repository.findSuccessor(token.tokenId(), graceStart);
+            if (successor != null) {
+                graceReuses.increment();
+                return jwtService.generateRefreshToken(user, successor.jti(), token.familyId(), successor.issuedAt());
+            }
+        }
+        reuses.increment();
+        log.warn("Refresh token reuse for user {}, revoking family {}", user.getId(), token.familyId());
+        revokeFamily(token.familyId(), now);
+        return null;
+    }
+
+    /** Revokes the family of {@code token} (logout); a token that predates rotation is ignored. */
+    @Transactional
+    public void revoke(VerifiedToken token) {
+        if (token.familyId() != null)
+            revokeFamily(token.familyId(), Instant.now());
+    }
+
+    @Scheduled(cron = "${soundage.auth.refresh-tokens.purge-cron:0 30 3 * * *}")
+    public void purge() {
+        Instant now = Instant.now();
+        usedTokens.values().removeIf(used -> !used.expiresAt.isAfter(now));
+        revokedFamilies.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        int deleted = repository.deleteExpired(now);
+        log.info("Purged {} expired refresh tokens", deleted);
+    }
+
+    private String issue(User user, UUID tokenId, UUID familyId, Instant now) {
+        repository.insert(tokenId, familyId, user.getId(), jwtService.refreshTokenExpiry(now));
+        return jwtService.generateRefreshToken(user, tokenId, familyId, now);
+    }
+
+    private void revokeFamily(UUID familyId, Instant now) {
+        // Any token of the family expires before one issued now would
+        revokedFamilies.put(familyId, jwtService.refreshTokenExpiry(now));
+        repository.deleteFamily(familyId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record UsedToken(Instant usedAt, Instant expiresAt) {
+    }
+}
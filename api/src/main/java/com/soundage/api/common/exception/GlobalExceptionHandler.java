@@ -1,6 +1,7 @@
 package com.soundage.api.common.exception;
 
 import com.soundage.api.common.response.ApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -51,6 +52,16 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(ex.getMessage()));
 	}
 
+	@ExceptionHandler(UserNotFoundException.class)
+	public ResponseEntity<ApiResponse<Object>> handleUserNotFoundException(UserNotFoundException ex) {
+		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(ex.getMessage()));
+	}
+
+	@ExceptionHandler(UserAccessChangeException.class)
+	public ResponseEntity<ApiResponse<Object>> handleUserAccessChangeException(UserAccessChangeException ex) {
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(ex.getMessage()));
+	}
+
 	@ExceptionHandler(DuplicateVoteException.class)
 	public ResponseEntity<ApiResponse<Object>> handleDuplicateVoteException(DuplicateVoteException ex) {
 		return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(ex.getMessage()));
@@ -67,6 +78,31 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error(ex.getMessage()));
 	}
 
+	@ExceptionHandler(InvalidVoteException.class)
+	public ResponseEntity<ApiResponse<Object>> handleInvalidVoteException(InvalidVoteException ex) {
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(ex.getMessage()));
+	}
+
+	@ExceptionHandler(InvalidCursorException.class)
+	public ResponseEntity<ApiResponse<Object>> handleInvalidCursorException(InvalidCursorException ex) {
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(ex.getMessage()));
+	}
+
+	@ExceptionHandler(VoteQueueFullException.class)
+	public ResponseEntity<ApiResponse<Object>> handleVoteQueueFullException(VoteQueueFullException ex) {
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.body(ApiResponse.error(ex.getMessage()));
+	}
+
+	@ExceptionHandler(VoteIngestionUnavailableException.class)
+	public ResponseEntity<ApiResponse<Object>> handleVoteIngestionUnavailableException(
+			VoteIngestionUnavailableException ex) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "5")
+				.body(ApiResponse.error(ex.getMessage()));
+	}
+
 	@ExceptionHandler(MethodArgumentNotValidException.class)
 	public ResponseEntity<ApiResponse<Map<String, String>>> handleValidationExceptions(
 			MethodArgumentNotValidException ex) {
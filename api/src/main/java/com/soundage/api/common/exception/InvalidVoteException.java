@@ -0,0 +1,8 @@
+package com.soundage.api.common.exception;
+
+public class InvalidVoteException extends RuntimeException {
+
+    public InvalidVoteException(String message) {
+        super(message);
+    }
+}
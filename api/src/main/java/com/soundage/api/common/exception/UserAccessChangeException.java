@@ -0,0 +1,9 @@
+package com.soundage.api.common.exception;
+
+/** An access change that would lock the acting admin, or every admin, out. */
+public class UserAccessChangeException extends RuntimeException {
+
+    public UserAccessChangeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.soundage.api.common.exception;
+
+import java.util.UUID;
+
+public class UserNotFoundException extends RuntimeException {
+
+    public UserNotFoundException(UUID id) {
+        super("User not found: " + id);
+    }
+}
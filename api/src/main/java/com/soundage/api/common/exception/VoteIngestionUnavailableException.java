@@ -0,0 +1,8 @@
+package com.soundage.api.common.exception;
+
+public class VoteIngestionUnavailableException extends RuntimeException {
+
+    public VoteIngestionUnavailableException() {
+        super("Votes are not being accepted right now. Please try again in a moment.");
+    }
+}
@@ -0,0 +1,8 @@
+package com.soundage.api.common.exception;
+
+public class VoteQueueFullException extends RuntimeException {
+
+    public VoteQueueFullException() {
+        super("Too many votes are being processed right now. Please try again in a moment.");
+    }
+}
@@ -1,26 +1,48 @@
 package com.soundage.api.config.security;
 
+import com.soundage.api.role.entity.Role;
+import com.soundage.api.user.entity.User;
+import com.soundage.api.user.service.UserAccessIndex;
+import com.soundage.api.user.service.UserDetailsCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Authenticates requests carrying an access token. The principal is the
+ * {@link User} with the token's email ({@link UserDetailsCache}), or with soundage.auth.principal=claims a
+ * {@link User} built from the token's principal claims (id, role, enabled),
+ * checked against {@link UserAccessIndex} instead of the database; tokens
+ * without those claims, or of users the index does not know, still go through
+ * the lookup (which refuses deleted users). A principal built from claims is
+ * not a persisted entity: code that needs the user entity resolves it by id.
+ */
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
+    private final UserAccessIndex userAccessIndex;
+    private final boolean claimsPrincipal;
+
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsCache userDetailsCache,
+            UserAccessIndex userAccessIndex,
+            @Value("${soundage.auth.principal:database}") String principalMode) {
+        this.jwtService = jwtService;
+        this.userDetailsCache = userDetailsCache;
+        this.userAccessIndex = userAccessIndex;
+        this.claimsPrincipal = "claims".equalsIgnoreCase(principalMode);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -34,16 +56,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            final String jwt = authHeader.substring(7);
-            if (!jwtService.isAccessToken(jwt)) {
+            // One verification per request (and none for a token verified recently)
+            final VerifiedToken token = jwtService.verify(authHeader.substring(7));
+            if (token == null || !token.isAccessToken()) {
                 filterChain.doFilter(request, response);
                 return;
             }
-            final String userEmail = jwtService.extractUsername(jwt);
 
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = claimsPrincipal && token.hasPrincipalClaims()
+                        && userAccessIndex.isKnown(token.userId())
+                        ? principalFromClaims(token)
+                        : userDetailsCache.get(token.subject());
+                if (userDetails != null && userDetails.isEnabled()
+                        && token.subject().equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -58,4 +84,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /** Principal from the token claims, or null if the user has been disabled since. */
+    private User principalFromClaims(VerifiedToken token) {
+        if (!token.enabled() || userAccessIndex.isDisabled(token.userId()))
+            return null;
+        Role.RoleName role = Role.RoleName.valueOf(token.role());
+        if (role == Role.RoleName.ADMIN && !userAccessIndex.isAdmin(token.userId()))
+            role = Role.RoleName.USER;
+        return User.builder()
+                .id(token.userId())
+                .email(token.subject())
+                .role(Role.builder().name(role).build())
+                .enabled(true)
+                .build();
+    }
 }
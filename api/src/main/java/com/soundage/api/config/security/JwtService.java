@@ -1,42 +1,76 @@
 package com.soundage.api.config.security;
 
+import com.soundage.api.user.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
-
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Issues and verifies the HMAC-signed access and refresh tokens. The signing
+ * key and the parser are built once. Verified tokens are kept, by SHA-256 of
+ * the token, until their expiration, so a client's repeated requests verify
+ * and parse its token once. Past jwt.verified-cache.max-entries one inserting
+ * thread trims the cache to 90% of it, dropping expired tokens and then those
+ * expiring soonest; lookups never wait on it.
+ */
 @Service
 public class JwtService {
 
 	public static final String CLAIM_TOKEN_TYPE = "type";
 	public static final String TOKEN_TYPE_ACCESS = "access";
 	public static final String TOKEN_TYPE_REFRESH = "refresh";
-
-	@Value("${jwt.secret:your-256-bit-secret-key-must-be-at-least-32-characters-long}")
-	private String secret;
-
-	@Value("${jwt.expiration:86400000}")
-	private Long expiration;
-
-	@Value("${jwt.refresh-expiration:604800000}")
-	private Long refreshExpiration;
-
-	public String extractUsername(String token) {
-		return extractClaim(token, Claims::getSubject);
-	}
-
-	public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-		final Claims claims = extractAllClaims(token);
-		return claimsResolver.apply(claims);
+	/** Principal claims, so the filter can skip the user lookup (soundage.auth.principal=claims). */
+	public static final String CLAIM_USER_ID = "uid";
+	public static final String CLAIM_ROLE = "role";
+	public static final String CLAIM_ENABLED = "enabled";
+	/** Refresh token family (see RefreshTokenStore); the token's own id is the standard jti. */
+	public static final String CLAIM_FAMILY = "fam";
+
+	private final SecretKey signingKey;
+	private final JwtParser parser;
+	private final long expiration;
+	private final long refreshExpiration;
+	private final int maxCachedTokens;
+	private final Map<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+	private final AtomicBoolean trimming = new AtomicBoolean();
+
+	private final Counter hits;
+	private final Counter misses;
+
+	public JwtService(MeterRegistry meterRegistry,
+			@Value("${jwt.secret:your-256-bit-secret-key-must-be-at-least-32-characters-long}") String secret,
+			@Value("${jwt.expiration:86400000}") long expiration,
+			@Value("${jwt.refresh-expiration:604800000}") long refreshExpiration,
+			@Value("${jwt.verified-cache.max-entries:10000}") int maxCachedTokens) {
+		this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+		this.parser = Jwts.parser().verifyWith(signingKey).build();
+		this.expiration = expiration;
+		this.refreshExpiration = refreshExpiration;
+		this.maxCachedTokens = maxCachedTokens;
+		this.hits = meterRegistry.counter("soundage.auth.verified-tokens.requests", "result", "hit");
+		this.misses = meterRegistry.counter("soundage.auth.verified-tokens.requests", "result", "miss");
+		meterRegistry.gauge("soundage.auth.verified-tokens.size", verified, Map::size);
 	}
 
 	public String generateToken(UserDetails userDetails) {
@@ -46,38 +80,95 @@ public class JwtService {
 	public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
 		Map<String, Object> claims = new HashMap<>(extraClaims);
 		claims.put(CLAIM_TOKEN_TYPE, TOKEN_TYPE_ACCESS);
+		if (userDetails instanceof User user) {
+			claims.put(CLAIM_USER_ID, user.getId().toString());
+			claims.put(CLAIM_ROLE, user.getRole().getName().name());
+			claims.put(CLAIM_ENABLED, user.isEnabled());
+		}
 		return buildToken(claims, userDetails, expiration);
 	}
 
-	public String generateRefreshToken(UserDetails userDetails) {
-		Map<String, Object> claims = new HashMap<>();
-		claims.put(CLAIM_TOKEN_TYPE, TOKEN_TYPE_REFRESH);
-		return buildToken(claims, userDetails, refreshExpiration);
+	/**
+	 * Refresh token with the given id (jti) and family, expiring at
+	 * {@link #refreshTokenExpiry}.
+	 */
+	public String generateRefreshToken(UserDetails userDetails, UUID tokenId, UUID familyId, Instant issuedAt) {
+		return Jwts.builder()
+				.id(tokenId.toString())
+				.claim(CLAIM_TOKEN_TYPE, TOKEN_TYPE_REFRESH)
+				.claim(CLAIM_FAMILY, familyId.toString())
+				.subject(userDetails.getUsername())
+				.issuedAt(Date.from(issuedAt))
+				.expiration(Date.from(refreshTokenExpiry(issuedAt)))
+				.signWith(signingKey)
+				.compact();
+	}
+
+	public Instant refreshTokenExpiry(Instant issuedAt) {
+		return issuedAt.plusMillis(refreshExpiration);
 	}
 
 	/**
-	 * Returns true only if the token has type=refresh. Rejects access tokens and
-	 * malformed tokens.
+	 * Checks the signature and expiration of a token and returns its claims, or
+	 * null if the token is malformed, forged or expired.
 	 */
-	public boolean isRefreshToken(String token) {
+	public VerifiedToken verify(String token) {
+		if (token == null || token.isBlank())
+			return null;
+		Instant now = Instant.now();
+		String key = hash(token);
+		VerifiedToken cached = verified.get(key);
+		if (cached != null) {
+			if (!cached.isExpired(now)) {
+				hits.increment();
+				return cached;
+			}
+			verified.remove(key, cached);
+		}
+		misses.increment();
+		VerifiedToken parsed;
 		try {
-			String type = extractClaim(token, claims -> claims.get(CLAIM_TOKEN_TYPE, String.class));
-			return TOKEN_TYPE_REFRESH.equals(type);
-		} catch (Exception e) {
-			return false;
+			Claims claims = parser.parseSignedClaims(token).getPayload();
+			Date exp = claims.getExpiration();
+			String userId = claims.get(CLAIM_USER_ID, String.class);
+			String familyId = claims.get(CLAIM_FAMILY, String.class);
+			parsed = new VerifiedToken(claims.getSubject(), claims.get(CLAIM_TOKEN_TYPE, String.class),
+					exp != null ? exp.toInstant() : null,
+					userId != null ? UUID.fromString(userId) : null,
+					claims.get(CLAIM_ROLE, String.class),
+					claims.get(CLAIM_ENABLED, Boolean.class),
+					claims.getId() != null ? UUID.fromString(claims.getId()) : null,
+					familyId != null ? UUID.fromString(familyId) : null);
+		} catch (JwtException | IllegalArgumentException e) {
+			return null;
+		}
+		if (parsed.subject() == null)
+			return null;
+		// Tokens without exp stay valid, but are not worth a cache slot
+		if (parsed.expiresAt() != null) {
+			verified.put(key, parsed);
+			if (verified.size() > maxCachedTokens)
+				trim(now);
 		}
+		return parsed;
 	}
 
-	/**
-	 * Returns true if the token is an access token (or legacy token without type).
-	 * Rejects refresh tokens for API access.
-	 */
-	public boolean isAccessToken(String token) {
+	/** Trims the cache to 90% of its bound; other inserting threads skip while one trims. */
+	private void trim(Instant now) {
+		if (!trimming.compareAndSet(false, true))
+			return;
 		try {
-			String type = extractClaim(token, claims -> claims.get(CLAIM_TOKEN_TYPE, String.class));
-			return type == null || TOKEN_TYPE_ACCESS.equals(type);
-		} catch (Exception e) {
-			return false;
+			verified.values().removeIf(token -> token.isExpired(now));
+			int excess = verified.size() - maxCachedTokens * 9 / 10;
+			if (excess > 0) {
+				verified.entrySet().stream()
+						.sorted(Comparator.comparing(e -> e.getValue().expiresAt()))
+						.limit(excess)
+						.toList()
+						.forEach(e -> verified.remove(e.getKey(), e.getValue()));
+			}
+		} finally {
+			trimming.set(false);
 		}
 	}
 
@@ -87,33 +178,16 @@ public class JwtService {
 				.subject(userDetails.getUsername())
 				.issuedAt(new Date(System.currentTimeMillis()))
 				.expiration(new Date(System.currentTimeMillis() + expiration))
-				.signWith(getSigningKey())
+				.signWith(signingKey)
 				.compact();
 	}
 
-	public boolean isTokenValid(String token, UserDetails userDetails) {
-		final String username = extractUsername(token);
-		return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-	}
-
-	private boolean isTokenExpired(String token) {
-		return extractExpiration(token).before(new Date());
-	}
-
-	private Date extractExpiration(String token) {
-		return extractClaim(token, Claims::getExpiration);
-	}
-
-	private Claims extractAllClaims(String token) {
-		return Jwts.parser()
-				.verifyWith(getSigningKey())
-				.build()
-				.parseSignedClaims(token)
-				.getPayload();
-	}
-
-	private SecretKey getSigningKey() {
-		byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-		return Keys.hmacShaKeyFor(keyBytes);
+	private static String hash(String token) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().encodeToString(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
 	}
 }
@@ -0,0 +1,40 @@
+package com.soundage.api.config.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Claims of a JWT whose signature has been checked, as returned by
+ * {@link JwtService#verify}.
+ *
+ * @param subject   user email
+ * @param type      {@link JwtService#TOKEN_TYPE_ACCESS} or
+ *                  {@link JwtService#TOKEN_TYPE_REFRESH}; null for legacy tokens
+ * @param expiresAt expiration (exp)
+ * @param userId    user id; null for tokens issued without principal claims
+ * @param role      role name at issuance, e.g. ADMIN
+ * @param enabled   whether the account was enabled at issuance
+ * @param tokenId   jti of a refresh token
+ * @param familyId  family of a refresh token
+ */
+public record VerifiedToken(String subject, String type, Instant expiresAt, UUID userId, String role,
+		Boolean enabled, UUID tokenId, UUID familyId) {
+
+	/** Access tokens, and legacy tokens without a type. Refresh tokens cannot be used for API access. */
+	public boolean isAccessToken() {
+		return type == null || JwtService.TOKEN_TYPE_ACCESS.equals(type);
+	}
+
+	public boolean isRefreshToken() {
+		return JwtService.TOKEN_TYPE_REFRESH.equals(type);
+	}
+
+	public boolean isExpired(Instant now) {
+		return expiresAt != null && !expiresAt.isAfter(now);
+	}
+
+	/** Whether the token carries the claims needed to build the principal without a lookup. */
+	public boolean hasPrincipalClaims() {
+		return userId != null && role != null && enabled != null;
+	}
+}
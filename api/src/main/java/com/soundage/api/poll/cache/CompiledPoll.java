@@ -0,0 +1,103 @@
+package com.soundage.api.poll.cache;
+
+import com.soundage.api.poll.dto.PollDetailDto;
+import com.soundage.api.poll.entity.Poll;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable, pre-parsed model of a poll and its questions, built once per poll
+ * version (updatedAt) and shared by the vote and detail paths.
+ */
+public final class CompiledPoll {
+
+    private final UUID id;
+    private final Instant version;
+    private final boolean active;
+    private final Instant startsAt;
+    private final Instant endsAt;
+    private final boolean allowAnonymous;
+    private final List<CompiledQuestion> questions;
+    private final Map<UUID, CompiledQuestion> questionsById;
+    private final PollDetailDto detail;
+    private final VoteValidator validator;
+
+    private CompiledPoll(Poll poll) {
+        this.id = poll.getId();
+        this.version = poll.getUpdatedAt();
+        this.active = Boolean.TRUE.equals(poll.getIsActive());
+        this.startsAt = poll.getStartsAt();
+        this.endsAt = poll.getEndsAt();
+        this.allowAnonymous = parseAllowAnonymous(poll.getSettings());
+        this.questions = poll.getQuestions() != null
+                ? poll.getQuestions().stream().map(CompiledQuestion::from).toList()
+                : List.of();
+        Map<UUID, CompiledQuestion> byId = new HashMap<>();
+        for (CompiledQuestion q : questions) {
+            byId.put(q.id(), q);
+        }
+        this.questionsById = Map.copyOf(byId);
+        this.detail = PollDetailDto.fromEntity(poll);
+        this.validator = VoteValidator.compile(poll.getQuestions() != null ? poll.getQuestions() : List.of());
+    }
+
+    /** Compiles a poll; questions and options must be loadable (open session). */
+    public static CompiledPoll compile(Poll poll) {
+        return new CompiledPoll(poll);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Instant getVersion() {
+        return version;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public Instant getStartsAt() {
+        return startsAt;
+    }
+
+    public Instant getEndsAt() {
+        return endsAt;
+    }
+
+    public boolean isAllowAnonymous() {
+        return allowAnonymous;
+    }
+
+    public List<CompiledQuestion> getQuestions() {
+        return questions;
+    }
+
+    public CompiledQuestion getQuestion(UUID questionId) {
+        return questionsById.get(questionId);
+    }
+
+    /**
+     * Detail DTO as built from the entity. Shared between callers: copy it (e.g.
+     * with toBuilder()) before setting per-request fields such as hasVoted.
+     */
+    public PollDetailDto getDetail() {
+        return detail;
+    }
+
+    public VoteValidator getValidator() {
+        return validator;
+    }
+
+    private static boolean parseAllowAnonymous(Map<String, Object> settings) {
+        if (settings == null)
+            return true;
+        Object v = settings.get("allowAnonymous");
+        return v instanceof Boolean && (Boolean) v;
+    }
+}
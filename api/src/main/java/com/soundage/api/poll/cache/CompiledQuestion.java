@@ -0,0 +1,64 @@
+package com.soundage.api.poll.cache;
+
+import com.soundage.api.poll.entity.Option;
+import com.soundage.api.poll.entity.Question;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable view of a question as needed on the vote path.
+ *
+ * @param optionIds    option ids in display order
+ * @param optionIdSet  the same ids, for O(1) membership checks
+ * @param optionValues numeric value of each option that has one (rating
+ *                     answers given as an option count as that value)
+ * @param ratingScale  scale from the settings; the default scale for
+ *                     non-rating questions
+ */
+public record CompiledQuestion(
+        UUID id,
+        Question.QuestionType type,
+        boolean required,
+        boolean allowMultiple,
+        List<UUID> optionIds,
+        Set<UUID> optionIdSet,
+        Map<UUID, BigDecimal> optionValues,
+        Map<String, Object> settings,
+        RatingScale ratingScale) {
+
+    static CompiledQuestion from(Question q) {
+        List<UUID> optionIds = q.getOptions() != null
+                ? q.getOptions().stream().map(Option::getId).toList()
+                : List.of();
+        Map<UUID, BigDecimal> optionValues = new HashMap<>();
+        if (q.getOptions() != null) {
+            for (Option o : q.getOptions()) {
+                if (o.getNumericValue() != null)
+                    optionValues.put(o.getId(), o.getNumericValue());
+            }
+        }
+        Map<String, Object> settings = q.getSettings() != null
+                ? Collections.unmodifiableMap(new HashMap<>(q.getSettings()))
+                : Map.of();
+        return new CompiledQuestion(
+                q.getId(),
+                q.getType(),
+                Boolean.TRUE.equals(q.getIsRequired()),
+                Boolean.TRUE.equals(q.getAllowMultiple()),
+                optionIds,
+                Set.copyOf(optionIds),
+                Map.copyOf(optionValues),
+                settings,
+                RatingScale.fromSettings(settings));
+    }
+
+    public boolean hasOption(UUID optionId) {
+        return optionId != null && optionIdSet.contains(optionId);
+    }
+}
@@ -0,0 +1,129 @@
+package com.soundage.api.poll.cache;
+
+import com.soundage.api.common.response.ApiResponse;
+import com.soundage.api.common.response.CursorPage;
+import com.soundage.api.poll.dto.PollDto;
+import com.soundage.api.poll.repository.OpenPollRepository;
+import com.soundage.api.poll.repository.PollCursor;
+import com.soundage.api.poll.service.PollChangedEvent;
+import com.soundage.api.poll.service.PollClosedEvent;
+import com.soundage.api.poll.service.PollOpenedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.util.RawValue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The public list of open polls, as serialized {@code ApiResponse} JSON. The
+ * first page's JSON is shared by all readers and built once until a poll is
+ * created, edited or deleted, a poll opens or closes (the next startsAt/endsAt
+ * of any active poll), or soundage.polls.listing.ttl-seconds pass (edits made
+ * on other nodes). Only the page is cached; the envelope, and so its
+ * timestamp, is written per request. Further pages are read from the database.
+ */
+@Component
+public class OpenPollsCache {
+
+    private static final String MESSAGE = "Active polls retrieved successfully";
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final OpenPollRepository repository;
+    private final ObjectMapper objectMapper;
+    private final int firstPageSize;
+    private final Duration ttl;
+    private volatile FirstPage firstPage;
+    /** Bumped on every invalidation so that a build racing with it is not kept. */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public OpenPollsCache(OpenPollRepository repository, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${soundage.polls.listing.page-size:50}") int firstPageSize,
+            @Value("${soundage.polls.listing.ttl-seconds:30}") long ttlSeconds) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.firstPageSize = firstPageSize;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.hits = meterRegistry.counter("soundage.polls.listing.requests", "result", "hit");
+        this.misses = meterRegistry.counter("soundage.polls.listing.requests", "result", "miss");
+    }
+
+    public int getFirstPageSize() {
+        return firstPageSize;
+    }
+
+    /** One page of open polls, newest first; only the default first page is cached. */
+    public byte[] get(String cursor, int limit) {
+        limit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if ((cursor != null && !cursor.isBlank()) || limit != firstPageSize) {
+            return wrap(serialize(repository.findOpen(Instant.now(), PollCursor.decode(cursor), limit)));
+        }
+        Instant now = Instant.now();
+        FirstPage page = firstPage;
+        if (page != null && now.isBefore(page.expiresAt)) {
+            hits.increment();
+            return wrap(page.json);
+        }
+        misses.increment();
+        return wrap(load(now));
+    }
+
+    @TransactionalEventListener
+    public void onPollChanged(PollChangedEvent event) {
+        invalidate();
+    }
+
+    @EventListener
+    public void onPollOpened(PollOpenedEvent event) {
+        invalidate();
+    }
+
+    @EventListener
+    public void onPollClosed(PollClosedEvent event) {
+        invalidate();
+    }
+
+    public void invalidate() {
+        invalidations.incrementAndGet();
+        firstPage = null;
+    }
+
+    /** Builds the first page; concurrent misses wait for one build. */
+    private synchronized String load(Instant now) {
+        FirstPage page = firstPage;
+        if (page != null && now.isBefore(page.expiresAt)) {
+            return page.json;
+        }
+        long generation = invalidations.get();
+        Instant builtAt = Instant.now();
+        String json = serialize(repository.findOpen(builtAt, null, firstPageSize));
+        Instant expiresAt = builtAt.plus(ttl);
+        Instant boundary = repository.findNextBoundary(builtAt);
+        if (boundary != null && boundary.isBefore(expiresAt))
+            expiresAt = boundary;
+        if (generation == invalidations.get())
+            firstPage = new FirstPage(json, expiresAt);
+        return json;
+    }
+
+    private String serialize(CursorPage<PollDto> page) {
+        return objectMapper.writeValueAsString(page);
+    }
+
+    /** The response envelope around an already serialized page. */
+    private byte[] wrap(String pageJson) {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(MESSAGE, new RawValue(pageJson)));
+    }
+
+    private record FirstPage(String json, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,226 @@
+package com.soundage.api.poll.cache;
+
+import com.soundage.api.poll.repository.OptionBitmapRepository;
+import com.soundage.api.poll.repository.TallyRepository;
+import com.soundage.api.poll.service.TallyDelta;
+import com.soundage.api.poll.service.VotesWrittenEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Holds the {@link OptionBitmapIndex} of hot polls in memory, bounded by
+ * soundage.results.bitmaps.max-entries with LRU eviction. Committed votes are
+ * applied to loaded indexes in place. A miss loads the poll's persisted
+ * bitmaps when they are still current (poll_tallies.vote_version unchanged),
+ * otherwise rebuilds them from answers and persists the result, so a cold poll
+ * is scanned at most once per change.
+ * <p>
+ * Indexes are rebuilt after soundage.results.bitmaps.ttl-seconds, which also
+ * repairs the rare case of two commits for the same response being applied in
+ * the opposite order.
+ */
+@Component
+@Slf4j
+public class OptionBitmapCache {
+
+    private final OptionBitmapRepository repository;
+    private final TallyRepository tallyRepository;
+    private final TransactionTemplate snapshotTx;
+    private final TransactionTemplate writeTx;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final LinkedHashMap<UUID, OptionBitmapIndex> entries;
+    private final Map<UUID, Loading> loading = new HashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter storedLoads;
+    private final Counter scanLoads;
+    private final Counter evictions;
+
+    public OptionBitmapCache(OptionBitmapRepository repository, TallyRepository tallyRepository,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${soundage.results.bitmaps.max-entries:50}") int maxEntries,
+            @Value("${soundage.results.bitmaps.ttl-seconds:600}") long ttlSeconds) {
+        this.repository = repository;
+        this.tallyRepository = tallyRepository;
+        // The vote version and the answers must be read from the same snapshot
+        this.snapshotTx = new TransactionTemplate(transactionManager);
+        this.snapshotTx.setReadOnly(true);
+        this.snapshotTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.writeTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxEntries = maxEntries;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.hits = meterRegistry.counter("soundage.results.bitmaps.requests", "result", "hit");
+        this.misses = meterRegistry.counter("soundage.results.bitmaps.requests", "result", "miss");
+        this.storedLoads = meterRegistry.counter("soundage.results.bitmaps.loads", "source", "stored");
+        this.scanLoads = meterRegistry.counter("soundage.results.bitmaps.loads", "source", "scan");
+        this.evictions = meterRegistry.counter("soundage.results.bitmaps.evictions");
+        meterRegistry.gauge("soundage.results.bitmaps.size", this, c -> c.size());
+    }
+
+    /** Returns the bitmap index of a poll, loading it on a miss; concurrent misses share one load. */
+    public OptionBitmapIndex get(UUID pollId) {
+        Loading pending;
+        boolean owner = false;
+        synchronized (this) {
+            OptionBitmapIndex index = entries.get(pollId);
+            if (index != null && index.getBuiltAt().plus(ttl).isAfter(Instant.now())) {
+                hits.increment();
+                return index;
+            }
+            misses.increment();
+            pending = loading.get(pollId);
+            if (pending == null) {
+                pending = new Loading();
+                loading.put(pollId, pending);
+                owner = true;
+            }
+        }
+        if (owner) {
+            load(pollId, pending);
+        }
+        try {
+            return pending.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re)
+                throw re;
+            throw e;
+        }
+    }
+
+    /** Applies committed option selections to the loaded indexes (and to loads in flight). */
+    @TransactionalEventListener
+    public void onVotesWritten(VotesWrittenEvent event) {
+        synchronized (this) {
+            for (TallyDelta.OptionMembership change : event.optionMemberships()) {
+                OptionBitmapIndex index = entries.get(change.pollId());
+                if (index != null)
+                    index.apply(change);
+                Loading pending = loading.get(change.pollId());
+                if (pending != null)
+                    pending.changes.add(change);
+            }
+        }
+    }
+
+    public synchronized void evict(UUID pollId) {
+        if (entries.remove(pollId) != null)
+            evictions.increment();
+        loading.remove(pollId);
+    }
+
+    /** Evicts now and again once the current transaction commits. */
+    public void evictAfterCommit(UUID pollId) {
+        evict(pollId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(pollId);
+                }
+            });
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Builds the index and publishes it. Votes committed while the snapshot was
+     * read are queued in {@code pending} and replayed on top; replaying a vote
+     * the snapshot already contains is harmless.
+     */
+    private void load(UUID pollId, Loading pending) {
+        OptionBitmapIndex index;
+        try {
+            Snapshot snapshot = snapshotTx.execute(status -> read(pollId));
+            index = snapshot.index;
+            if (snapshot.scanned) {
+                persist(pollId, snapshot);
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                loading.remove(pollId, pending);
+            }
+            pending.future.completeExceptionally(e);
+            return;
+        }
+        synchronized (this) {
+            pending.changes.forEach(index::apply);
+            // Not cached if the poll was evicted (edited) meanwhile
+            if (loading.remove(pollId, pending)) {
+                entries.put(pollId, index);
+                evictLeastRecentlyUsed();
+            }
+        }
+        pending.future.complete(index);
+    }
+
+    private Snapshot read(UUID pollId) {
+        Instant now = Instant.now();
+        long voteVersion = tallyRepository.findVoteVersion(pollId);
+        Map<UUID, byte[]> stored = repository.findBitmaps(pollId, voteVersion);
+        if (stored != null) {
+            storedLoads.increment();
+            return new Snapshot(OptionBitmapIndex.deserialize(stored, now), voteVersion, false);
+        }
+        scanLoads.increment();
+        Map<UUID, Roaring64NavigableMap> options = new HashMap<>();
+        repository.scanSelections(pollId, (optionId, responseSeq) ->
+                options.computeIfAbsent(optionId, id -> new Roaring64NavigableMap()).addLong(responseSeq));
+        return new Snapshot(new OptionBitmapIndex(options, now), voteVersion, true);
+    }
+
+    /** Persists a freshly built index; a failure only costs a rebuild on the next cold load. */
+    private void persist(UUID pollId, Snapshot snapshot) {
+        try {
+            Map<UUID, byte[]> serialized = snapshot.index.serialize();
+            writeTx.executeWithoutResult(status -> repository.save(pollId, snapshot.voteVersion, serialized));
+        } catch (RuntimeException e) {
+            log.warn("Could not persist option bitmaps of poll {}: {}", pollId, e.getMessage());
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        var it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Snapshot(OptionBitmapIndex index, long voteVersion, boolean scanned) {
+    }
+
+    private static final class Loading {
+        final CompletableFuture<OptionBitmapIndex> future = new CompletableFuture<>();
+        final List<TallyDelta.OptionMembership> changes = new ArrayList<>();
+    }
+}
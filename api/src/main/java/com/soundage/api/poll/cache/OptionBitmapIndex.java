@@ -0,0 +1,145 @@
+package com.soundage.api.poll.cache;
+
+import com.soundage.api.poll.service.TallyDelta;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-poll index mapping each option to the compressed bitmap of the
+ * responses (by ordinal, responses.seq) that selected it. A segment of voters
+ * is an intersection of option unions, and segmented option counts are
+ * intersection cardinalities, so no answers are joined at query time.
+ * <p>
+ * Committed votes are applied in place by {@link OptionBitmapCache}; readers
+ * and writers are guarded by a read-write lock.
+ */
+public final class OptionBitmapIndex {
+
+    private final Map<UUID, Roaring64NavigableMap> options;
+    private final Instant builtAt;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public OptionBitmapIndex(Map<UUID, Roaring64NavigableMap> options, Instant builtAt) {
+        this.options = new HashMap<>(options);
+        this.options.values().forEach(Roaring64NavigableMap::runOptimize);
+        this.builtAt = builtAt;
+    }
+
+    public static OptionBitmapIndex deserialize(Map<UUID, byte[]> serialized, Instant builtAt) {
+        Map<UUID, Roaring64NavigableMap> options = new HashMap<>();
+        serialized.forEach((optionId, bytes) -> {
+            Roaring64NavigableMap bitmap = new Roaring64NavigableMap();
+            try {
+                bitmap.deserialize(new DataInputStream(new ByteArrayInputStream(bytes)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Corrupt bitmap for option " + optionId, e);
+            }
+            options.put(optionId, bitmap);
+        });
+        return new OptionBitmapIndex(options, builtAt);
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    /** Serialized bitmaps by option id, as stored in poll_option_bitmaps. */
+    public Map<UUID, byte[]> serialize() {
+        lock.readLock().lock();
+        try {
+            Map<UUID, byte[]> serialized = new HashMap<>();
+            options.forEach((optionId, bitmap) -> {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) bitmap.serializedSizeInBytes());
+                try (DataOutputStream out = new DataOutputStream(bytes)) {
+                    bitmap.serialize(out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not serialize bitmap of option " + optionId, e);
+                }
+                serialized.put(optionId, bytes.toByteArray());
+            });
+            return serialized;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Adds or removes one response from an option's bitmap. */
+    public void apply(TallyDelta.OptionMembership change) {
+        lock.writeLock().lock();
+        try {
+            if (change.selected()) {
+                options.computeIfAbsent(change.optionId(), id -> new Roaring64NavigableMap())
+                        .addLong(change.responseSeq());
+            } else {
+                Roaring64NavigableMap bitmap = options.get(change.optionId());
+                if (bitmap != null)
+                    bitmap.removeLong(change.responseSeq());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Responses that selected at least one option of every group, e.g. one
+     * group per filtered question. The result is a copy owned by the caller.
+     */
+    public Roaring64NavigableMap segment(Collection<? extends Collection<UUID>> groups) {
+        lock.readLock().lock();
+        try {
+            Roaring64NavigableMap segment = null;
+            for (Collection<UUID> group : groups) {
+                Roaring64NavigableMap union = new Roaring64NavigableMap();
+                for (UUID optionId : group) {
+                    Roaring64NavigableMap bitmap = options.get(optionId);
+                    if (bitmap != null)
+                        union.or(bitmap);
+                }
+                if (segment == null) {
+                    segment = union;
+                } else {
+                    segment.and(union);
+                }
+            }
+            return segment != null ? segment : new Roaring64NavigableMap();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Responses of the segment that selected the option. */
+    public long count(UUID optionId, Roaring64NavigableMap segment) {
+        return countAny(List.of(optionId), segment);
+    }
+
+    /** Responses of the segment that selected at least one of the options. */
+    public long countAny(Collection<UUID> optionIds, Roaring64NavigableMap segment) {
+        lock.readLock().lock();
+        try {
+            Roaring64NavigableMap selected = new Roaring64NavigableMap();
+            for (UUID optionId : optionIds) {
+                Roaring64NavigableMap bitmap = options.get(optionId);
+                if (bitmap != null)
+                    selected.or(bitmap);
+            }
+            selected.and(segment);
+            return selected.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.soundage.api.poll.cache;
+
+import com.soundage.api.common.exception.PollNotFoundException;
+import com.soundage.api.poll.entity.Poll;
+import com.soundage.api.poll.repository.PollRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-poll cache of {@link CompiledPoll}. Entries are replaced only by a newer
+ * version (updatedAt), evicted by PollService on update/delete, and reloaded
+ * after soundage.poll-cache.ttl-seconds so that edits made on another node are
+ * eventually picked up.
+ */
+@Component
+@Slf4j
+public class PollModelCache {
+
+    private final PollRepository pollRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    /** Bumped on every eviction so that a load racing with an eviction is not cached. */
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PollModelCache(PollRepository pollRepository, PlatformTransactionManager transactionManager,
+            @Value("${soundage.poll-cache.max-entries:1000}") int maxEntries,
+            @Value("${soundage.poll-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.pollRepository = pollRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.maxEntries = maxEntries;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    /**
+     * Returns the compiled model of a poll, loading it on a miss.
+     *
+     * @throws PollNotFoundException if the poll does not exist
+     */
+    public CompiledPoll get(UUID pollId) {
+        Entry entry = entries.get(pollId);
+        Instant now = Instant.now();
+        if (entry != null && entry.loadedAt.plus(ttl).isAfter(now)) {
+            return entry.poll;
+        }
+        long generation = evictions.get();
+        CompiledPoll compiled = readOnlyTx.execute(status -> {
+            Poll poll = pollRepository.findByIdWithQuestions(pollId)
+                    .orElseThrow(() -> new PollNotFoundException(pollId));
+            return CompiledPoll.compile(poll);
+        });
+        if (generation == evictions.get()) {
+            put(compiled, now);
+        }
+        return compiled;
+    }
+
+    public void evict(UUID pollId) {
+        evictions.incrementAndGet();
+        entries.remove(pollId);
+    }
+
+    /**
+     * Evicts now and again once the current transaction commits, so a concurrent
+     * reader cannot re-cache the pre-commit version.
+     */
+    public void evictAfterCommit(UUID pollId) {
+        evict(pollId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(pollId);
+                }
+            });
+        }
+    }
+
+    private void put(CompiledPoll compiled, Instant loadedAt) {
+        entries.merge(compiled.getId(), new Entry(compiled, loadedAt), (old, neu) -> {
+            Instant oldVersion = old.poll.getVersion();
+            Instant newVersion = neu.poll.getVersion();
+            return oldVersion != null && newVersion != null && newVersion.isBefore(oldVersion) ? old : neu;
+        });
+        if (entries.size() > maxEntries) {
+            entries.entrySet().stream()
+                    .min(Comparator.comparing(e -> e.getValue().loadedAt))
+                    .ifPresent(e -> entries.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    private record Entry(CompiledPoll poll, Instant loadedAt) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.soundage.api.poll.cache;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Scale of a rating question, read from its settings ("min", "max", "step").
+ * Defaults to 1..5 in steps of 1, the scale the poll editor creates.
+ */
+public record RatingScale(double min, double max, double step) {
+
+    public static final RatingScale DEFAULT = new RatingScale(1, 5, 1);
+
+    /** Largest number of values a scale may have, so that {@link #size()} fits an int. */
+    public static final int MAX_VALUES = 1_000_000_000;
+
+    public static RatingScale fromSettings(Map<String, Object> settings) {
+        if (settings == null)
+            return DEFAULT;
+        double min = number(settings.get("min"), DEFAULT.min);
+        double max = number(settings.get("max"), DEFAULT.max);
+        double step = number(settings.get("step"), DEFAULT.step);
+        if (!Double.isFinite(min) || !Double.isFinite(max) || !Double.isFinite(step) || !(max >= min)
+                || !(step > 0) || (max - min) / step >= MAX_VALUES)
+            return DEFAULT;
+        return new RatingScale(min, max, step);
+    }
+
+    public boolean contains(double value) {
+        if (value < min || value > max)
+            return false;
+        double steps = (value - min) / step;
+        return Math.abs(steps - Math.rint(steps)) < 1e-9;
+    }
+
+    /** Number of distinct values on the scale. */
+    public int size() {
+        return (int) Math.min(Math.floor((max - min) / step + 1e-9) + 1, MAX_VALUES);
+    }
+
+    /** Index of the scale value nearest to {@code value}, clamped to the scale. */
+    public int indexOf(double value) {
+        long index = Math.round((value - min) / step);
+        return (int) Math.max(0, Math.min(size() - 1, index));
+    }
+
+    /** Scale value at {@code index} (0 = min). */
+    public double valueAt(int index) {
+        return min + index * step;
+    }
+
+    private static double number(Object v, double fallback) {
+        if (v instanceof Number n)
+            return n.doubleValue();
+        if (v instanceof String s) {
+            try {
+                return new BigDecimal(s.trim()).doubleValue();
+            } catch (NumberFormatException e) {
+                return fallback;
+            }
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,225 @@
+package com.soundage.api.poll.cache;
+
+import com.soundage.api.common.exception.PollNotFoundException;
+import com.soundage.api.poll.dto.PollResultsDto;
+import com.soundage.api.poll.service.VotesWrittenEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Per-poll cache of {@link PollResultsDto}, bounded by
+ * soundage.results.cache.max-entries with LRU eviction. Committed votes mark
+ * the entry stale: readers keep getting the stale results while one background
+ * recomputation runs. A miss is computed once, concurrent readers of the same
+ * poll wait for that computation. Poll edits evict the entry.
+ */
+@Component
+@Slf4j
+public class ResultsCache implements DisposableBean {
+
+    private final TransactionTemplate readOnlyTx;
+    private final int maxEntries;
+    private final LinkedHashMap<UUID, Entry> entries;
+    private final Map<UUID, CompletableFuture<PollResultsDto>> loading = new HashMap<>();
+    /** Polls without an entry that received votes while their results were being computed. */
+    private final Set<UUID> staleWhileLoading = new HashSet<>();
+    private final ExecutorService refresher = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter recomputes;
+    private final Counter evictions;
+
+    public ResultsCache(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${soundage.results.cache.max-entries:200}") int maxEntries) {
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.hits = meterRegistry.counter("soundage.results.cache.requests", "result", "hit");
+        this.staleHits = meterRegistry.counter("soundage.results.cache.requests", "result", "stale");
+        this.misses = meterRegistry.counter("soundage.results.cache.requests", "result", "miss");
+        this.recomputes = meterRegistry.counter("soundage.results.cache.recomputes");
+        this.evictions = meterRegistry.counter("soundage.results.cache.evictions");
+        meterRegistry.gauge("soundage.results.cache.size", this, c -> c.size());
+    }
+
+    /**
+     * Returns the cached results of a poll, computing them with {@code compute}
+     * (in a read-only transaction) on a miss.
+     *
+     * @throws PollNotFoundException if the poll does not exist
+     */
+    public PollResultsDto get(UUID pollId, Function<UUID, PollResultsDto> compute) {
+        CompletableFuture<PollResultsDto> pending;
+        boolean owner = false;
+        synchronized (this) {
+            Entry entry = entries.get(pollId);
+            if (entry != null) {
+                if (!entry.stale) {
+                    hits.increment();
+                    return entry.results;
+                }
+                staleHits.increment();
+                if (!loading.containsKey(pollId)) {
+                    CompletableFuture<PollResultsDto> refresh = startLoad(pollId);
+                    long generation = entry.generation;
+                    refresher.execute(() -> load(pollId, compute, refresh, generation));
+                }
+                return entry.results;
+            }
+            misses.increment();
+            pending = loading.get(pollId);
+            if (pending == null) {
+                pending = startLoad(pollId);
+                owner = true;
+            }
+        }
+        if (owner) {
+            load(pollId, compute, pending, -1);
+        }
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re)
+                throw re;
+            throw e;
+        }
+    }
+
+    /** Marks the results of the polls stale once the votes are committed. */
+    @TransactionalEventListener
+    public void onVotesWritten(VotesWrittenEvent event) {
+        synchronized (this) {
+            for (UUID pollId : event.pollIds()) {
+                Entry entry = entries.get(pollId);
+                if (entry != null) {
+                    entry.stale = true;
+                    entry.generation++;
+                } else if (loading.containsKey(pollId)) {
+                    staleWhileLoading.add(pollId);
+                }
+            }
+        }
+    }
+
+    public synchronized void evict(UUID pollId) {
+        if (entries.remove(pollId) != null)
+            evictions.increment();
+        // A computation in flight may have read the old poll: its waiters still get
+        // its result, but it is not cached
+        loading.remove(pollId);
+        staleWhileLoading.remove(pollId);
+    }
+
+    /** Evicts now and again once the current transaction commits. */
+    public void evictAfterCommit(UUID pollId) {
+        evict(pollId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(pollId);
+                }
+            });
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+
+    private CompletableFuture<PollResultsDto> startLoad(UUID pollId) {
+        CompletableFuture<PollResultsDto> future = new CompletableFuture<>();
+        loading.put(pollId, future);
+        return future;
+    }
+
+    /**
+     * Computes the results and stores them unless the entry was evicted or
+     * marked stale again meanwhile; in that case the value is still handed to
+     * waiting readers but stays stale.
+     */
+    private void load(UUID pollId, Function<UUID, PollResultsDto> compute,
+            CompletableFuture<PollResultsDto> future, long generation) {
+        recomputes.increment();
+        PollResultsDto results;
+        try {
+            results = readOnlyTx.execute(status -> compute.apply(pollId));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                if (loading.remove(pollId, future))
+                    staleWhileLoading.remove(pollId);
+                if (e instanceof PollNotFoundException)
+                    entries.remove(pollId);
+            }
+            if (generation >= 0 && !(e instanceof PollNotFoundException))
+                log.warn("Results recomputation failed for poll {}", pollId, e);
+            future.completeExceptionally(e);
+            return;
+        }
+        synchronized (this) {
+            if (loading.remove(pollId, future)) {
+                boolean votedMeanwhile = staleWhileLoading.remove(pollId);
+                Entry entry = entries.get(pollId);
+                if (entry == null) {
+                    Entry created = new Entry(results);
+                    created.stale = votedMeanwhile;
+                    entries.put(pollId, created);
+                    evictLeastRecentlyUsed();
+                } else {
+                    entry.results = results;
+                    entry.stale = entry.generation != generation;
+                }
+            }
+        }
+        future.complete(results);
+    }
+
+    private void evictLeastRecentlyUsed() {
+        var it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+        PollResultsDto results;
+        boolean stale;
+        /** Incremented by each stale mark; a refresh only clears staleness it started from. */
+        long generation;
+
+        Entry(PollResultsDto results) {
+            this.results = results;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.soundage.api.poll.cache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only open-addressing table from UUID to a dense int ordinal, backed by
+ * primitive arrays so lookups on the vote path allocate nothing and avoid
+ * boxed map entries.
+ */
+final class UuidIndex {
+
+    private final long[] msb;
+    private final long[] lsb;
+    private final int[] ordinals;
+    private final int mask;
+
+    /** Ordinal i is assigned to ids.get(i). Ids must be distinct and non-null. */
+    UuidIndex(List<UUID> ids) {
+        int capacity = Integer.highestOneBit(Math.max(4, ids.size() * 2 - 1)) << 1;
+        this.msb = new long[capacity];
+        this.lsb = new long[capacity];
+        this.ordinals = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(ordinals, -1);
+        for (int i = 0; i < ids.size(); i++) {
+            UUID id = ids.get(i);
+            int slot = slot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            while (ordinals[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            msb[slot] = id.getMostSignificantBits();
+            lsb[slot] = id.getLeastSignificantBits();
+            ordinals[slot] = i;
+        }
+    }
+
+    /** Returns the ordinal of id, or -1 if unknown (or null). */
+    int get(UUID id) {
+        if (id == null)
+            return -1;
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        int slot = slot(hi, lo);
+        while (ordinals[slot] >= 0) {
+            if (msb[slot] == hi && lsb[slot] == lo)
+                return ordinals[slot];
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(long hi, long lo) {
+        long h = hi ^ lo;
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        return (int) h & mask;
+    }
+}
@@ -0,0 +1,250 @@
+package com.soundage.api.poll.cache;
+
+import com.soundage.api.common.exception.InvalidVoteException;
+import com.soundage.api.poll.dto.AnswerInputDto;
+import com.soundage.api.poll.dto.RankingEntryDto;
+import com.soundage.api.poll.entity.Option;
+import com.soundage.api.poll.entity.Question;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Checks a vote against the poll definition: known questions, options that
+ * belong to their question, single vs multiple selection, required questions,
+ * rating range and complete rankings. Compiled once per poll version into
+ * primitive lookup tables (question/option ordinals) so that junk payloads are
+ * rejected before a transaction or connection is used.
+ */
+public final class VoteValidator {
+
+    private static final Question.QuestionType[] TYPES = Question.QuestionType.values();
+
+    private final UUID[] questionIds;
+    private final UuidIndex questionIndex;
+    private final byte[] questionType;
+    private final boolean[] required;
+    private final boolean[] multiple;
+    private final int[] optionCount;
+    private final double[] ratingMin;
+    private final double[] ratingMax;
+    private final double[] ratingStep;
+    private final int[] textMaxLength;
+
+    private final UuidIndex optionIndex;
+    private final int[] optionQuestion;
+
+    private VoteValidator(List<Question> questions) {
+        int n = questions.size();
+        questionIds = new UUID[n];
+        questionType = new byte[n];
+        required = new boolean[n];
+        multiple = new boolean[n];
+        optionCount = new int[n];
+        ratingMin = new double[n];
+        ratingMax = new double[n];
+        ratingStep = new double[n];
+        textMaxLength = new int[n];
+
+        List<UUID> optionIds = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int q = 0; q < n; q++) {
+            Question question = questions.get(q);
+            questionIds[q] = question.getId();
+            questionType[q] = (byte) question.getType().ordinal();
+            required[q] = Boolean.TRUE.equals(question.getIsRequired());
+            multiple[q] = Boolean.TRUE.equals(question.getAllowMultiple())
+                    || question.getType() == Question.QuestionType.multiple_choice;
+            RatingScale scale = RatingScale.fromSettings(question.getSettings());
+            ratingMin[q] = scale.min();
+            ratingMax[q] = scale.max();
+            ratingStep[q] = scale.step();
+            textMaxLength[q] = maxLength(question);
+            List<Option> options = question.getOptions() != null ? question.getOptions() : List.of();
+            optionCount[q] = options.size();
+            for (Option o : options) {
+                optionIds.add(o.getId());
+                owners.add(q);
+            }
+        }
+        questionIndex = new UuidIndex(List.of(questionIds));
+        optionIndex = new UuidIndex(optionIds);
+        optionQuestion = owners.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    static VoteValidator compile(List<Question> questions) {
+        return new VoteValidator(questions);
+    }
+
+    /**
+     * @throws InvalidVoteException describing the first problem found
+     */
+    public void validate(List<AnswerInputDto> answers) {
+        boolean[] seen = new boolean[questionIds.length];
+        boolean[] answered = new boolean[questionIds.length];
+        boolean[] seenOption = new boolean[optionQuestion.length];
+
+        for (AnswerInputDto input : answers) {
+            int q = questionIndex.get(input.getQuestionId());
+            if (q < 0) {
+                throw new InvalidVoteException("Unknown question ID: " + input.getQuestionId());
+            }
+            // Also an entry without a value, so an empty entry cannot hide a second one
+            if (seen[q]) {
+                throw new InvalidVoteException("Question " + questionIds[q] + " is answered more than once.");
+            }
+            seen[q] = true;
+            Question.QuestionType type = TYPES[questionType[q]];
+            boolean hasValue = switch (type) {
+                case single_choice, multiple_choice, image_choice, yes_no -> validateChoice(q, input, seenOption);
+                case rating -> validateRating(q, input, seenOption);
+                case text -> validateText(q, input);
+                case ranking -> validateRanking(q, input, seenOption);
+            };
+            answered[q] = hasValue;
+        }
+
+        for (int q = 0; q < questionIds.length; q++) {
+            if (required[q] && !answered[q]) {
+                throw new InvalidVoteException("Question " + questionIds[q] + " is required.");
+            }
+        }
+    }
+
+    private boolean validateChoice(int q, AnswerInputDto input, boolean[] seenOption) {
+        rejectText(q, input);
+        rejectNumeric(q, input);
+        rejectRanking(q, input);
+        int selected = 0;
+        if (input.getOptionId() != null) {
+            checkOption(q, input.getOptionId(), seenOption);
+            selected++;
+        }
+        if (input.getOptionIds() != null) {
+            for (UUID optionId : input.getOptionIds()) {
+                checkOption(q, optionId, seenOption);
+                selected++;
+            }
+        }
+        if (selected > 1 && !multiple[q]) {
+            throw new InvalidVoteException("Question " + questionIds[q] + " allows a single choice.");
+        }
+        return selected > 0;
+    }
+
+    private boolean validateRating(int q, AnswerInputDto input, boolean[] seenOption) {
+        rejectText(q, input);
+        rejectRanking(q, input);
+        if (input.getOptionIds() != null && !input.getOptionIds().isEmpty()) {
+            throw new InvalidVoteException("Question " + questionIds[q] + " takes a single rating.");
+        }
+        if (input.getOptionId() != null) {
+            // Rating given as one of the question's numeric options
+            if (input.getNumericValue() != null) {
+                throw new InvalidVoteException("Question " + questionIds[q] + " takes a single rating.");
+            }
+            checkOption(q, input.getOptionId(), seenOption);
+            return true;
+        }
+        BigDecimal value = input.getNumericValue();
+        if (value == null)
+            return false;
+        double v = value.doubleValue();
+        if (v < ratingMin[q] || v > ratingMax[q]) {
+            throw new InvalidVoteException("Rating for question " + questionIds[q] + " must be between "
+                    + format(ratingMin[q]) + " and " + format(ratingMax[q]) + ".");
+        }
+        double steps = (v - ratingMin[q]) / ratingStep[q];
+        if (Math.abs(steps - Math.rint(steps)) > 1e-9) {
+            throw new InvalidVoteException("Rating for question " + questionIds[q]
+                    + " must be in steps of " + format(ratingStep[q]) + ".");
+        }
+        return true;
+    }
+
+    private boolean validateText(int q, AnswerInputDto input) {
+        rejectOptions(q, input);
+        rejectNumeric(q, input);
+        rejectRanking(q, input);
+        String text = input.getTextValue();
+        if (text == null || text.isBlank())
+            return false;
+        if (textMaxLength[q] > 0 && text.length() > textMaxLength[q]) {
+            throw new InvalidVoteException("Answer to question " + questionIds[q] + " is longer than "
+                    + textMaxLength[q] + " characters.");
+        }
+        return true;
+    }
+
+    private boolean validateRanking(int q, AnswerInputDto input, boolean[] seenOption) {
+        rejectOptions(q, input);
+        rejectText(q, input);
+        rejectNumeric(q, input);
+        List<RankingEntryDto> ranking = input.getRanking();
+        if (ranking == null || ranking.isEmpty())
+            return false;
+        int n = ranking.size();
+        if (n > optionCount[q]) {
+            throw new InvalidVoteException("Ranking for question " + questionIds[q] + " has too many entries.");
+        }
+        boolean[] seenPosition = new boolean[n + 1];
+        for (RankingEntryDto entry : ranking) {
+            checkOption(q, entry.getOptionId(), seenOption);
+            Integer position = entry.getPosition();
+            if (position == null || position < 1 || position > n || seenPosition[position]) {
+                throw new InvalidVoteException("Ranking for question " + questionIds[q]
+                        + " must use each position from 1 to " + n + " once.");
+            }
+            seenPosition[position] = true;
+        }
+        return true;
+    }
+
+    private void checkOption(int q, UUID optionId, boolean[] seenOption) {
+        int o = optionIndex.get(optionId);
+        if (o < 0 || optionQuestion[o] != q) {
+            throw new InvalidVoteException("Option " + optionId + " does not belong to question " + questionIds[q] + ".");
+        }
+        if (seenOption[o]) {
+            throw new InvalidVoteException("Option " + optionId + " is selected more than once.");
+        }
+        seenOption[o] = true;
+    }
+
+    private void rejectOptions(int q, AnswerInputDto input) {
+        if (input.getOptionId() != null || (input.getOptionIds() != null && !input.getOptionIds().isEmpty())) {
+            throw new InvalidVoteException("Question " + questionIds[q] + " does not take options.");
+        }
+    }
+
+    private void rejectText(int q, AnswerInputDto input) {
+        if (input.getTextValue() != null && !input.getTextValue().isBlank()) {
+            throw new InvalidVoteException("Question " + questionIds[q] + " does not take a text answer.");
+        }
+    }
+
+    private void rejectNumeric(int q, AnswerInputDto input) {
+        if (input.getNumericValue() != null) {
+            throw new InvalidVoteException("Question " + questionIds[q] + " does not take a numeric answer.");
+        }
+    }
+
+    private void rejectRanking(int q, AnswerInputDto input) {
+        if (input.getRanking() != null && !input.getRanking().isEmpty()) {
+            throw new InvalidVoteException("Question " + questionIds[q] + " does not take a ranking.");
+        }
+    }
+
+    private static int maxLength(Question question) {
+        if (question.getSettings() == null)
+            return 0;
+        Object v = question.getSettings().get("maxLength");
+        return v instanceof Number n ? n.intValue() : 0;
+    }
+
+    private static String format(double v) {
+        return BigDecimal.valueOf(v).stripTrailingZeros().toPlainString();
+    }
+}
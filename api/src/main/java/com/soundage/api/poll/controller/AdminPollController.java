@@ -1,23 +1,38 @@
 package com.soundage.api.poll.controller;
 
 import com.soundage.api.common.response.ApiResponse;
+import com.soundage.api.common.response.CursorPage;
 import com.soundage.api.config.security.RequiresAdmin;
 import com.soundage.api.poll.dto.PollDetailDto;
 import com.soundage.api.poll.dto.PollDto;
 import com.soundage.api.poll.dto.PollResultsDto;
+import com.soundage.api.poll.dto.TextResponseEntryDto;
+import com.soundage.api.poll.dto.TextTermDto;
+import com.soundage.api.poll.dto.TimelineBucketDto;
+import com.soundage.api.poll.dto.VoterInfoDto;
 import com.soundage.api.poll.dto.CreatePollRequest;
 import com.soundage.api.poll.dto.UpdatePollRequest;
+import com.soundage.api.poll.service.ExportFormat;
+import com.soundage.api.poll.service.PollExportService;
 import com.soundage.api.poll.service.PollService;
+import com.soundage.api.poll.service.ResultsStreamService;
+import com.soundage.api.poll.service.RollupGranularity;
 import com.soundage.api.user.entity.User;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -26,6 +41,8 @@ import java.util.UUID;
 public class AdminPollController {
 
     private final PollService pollService;
+    private final ResultsStreamService resultsStreamService;
+    private final PollExportService pollExportService;
 
     @GetMapping
     @RequiresAdmin
@@ -46,13 +63,90 @@ public class AdminPollController {
         return ResponseEntity.ok(ApiResponse.success(poll));
     }
 
+    /**
+     * Results of a poll; {@code filter} (comma-separated option ids) restricts
+     * them to the voters who selected those options, e.g. the answers to Q2 of
+     * everyone who picked A on Q1.
+     */
     @GetMapping("/{id}/results")
     @RequiresAdmin
-    public ResponseEntity<ApiResponse<PollResultsDto>> getResults(@PathVariable UUID id) {
-        PollResultsDto results = pollService.findResults(id);
+    public ResponseEntity<ApiResponse<PollResultsDto>> getResults(@PathVariable UUID id,
+            @RequestParam(required = false) List<UUID> filter) {
+        PollResultsDto results = pollService.findResults(id, filter);
         return ResponseEntity.ok(ApiResponse.success("Results retrieved successfully", results));
     }
 
+    @GetMapping("/{id}/results/voters")
+    @RequiresAdmin
+    public ResponseEntity<ApiResponse<CursorPage<VoterInfoDto>>> getVoters(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<VoterInfoDto> page = pollService.findVoters(id, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+
+    /** Answers to a text question; {@code q} searches them (words, "phrases", or, -word). */
+    @GetMapping("/{id}/results/questions/{questionId}/text")
+    @RequiresAdmin
+    public ResponseEntity<ApiResponse<CursorPage<TextResponseEntryDto>>> getTextResponses(
+            @PathVariable UUID id,
+            @PathVariable UUID questionId,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<TextResponseEntryDto> page = pollService.findTextResponses(id, questionId, q, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+
+    @GetMapping("/{id}/results/questions/{questionId}/terms")
+    @RequiresAdmin
+    public ResponseEntity<ApiResponse<List<TextTermDto>>> getTopTerms(
+            @PathVariable UUID id,
+            @PathVariable UUID questionId,
+            @RequestParam(defaultValue = "30") int limit) {
+        List<TextTermDto> terms = pollService.findTopTerms(id, questionId, limit);
+        return ResponseEntity.ok(ApiResponse.success(terms));
+    }
+
+    /** New and updated responses per minute, hour or day (UTC buckets) in [from, to). */
+    @GetMapping("/{id}/timeline")
+    @RequiresAdmin
+    public ResponseEntity<ApiResponse<java.util.List<TimelineBucketDto>>> getTimeline(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "minute") RollupGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        java.util.List<TimelineBucketDto> timeline = pollService.findTimeline(id, granularity, from, to);
+        return ResponseEntity.ok(ApiResponse.success(timeline));
+    }
+
+    /**
+     * Raw responses as a CSV or NDJSON download, one row per response with a
+     * column per question, streamed from the database as it is read.
+     */
+    @GetMapping("/{id}/export")
+    @RequiresAdmin
+    public void export(@PathVariable UUID id, @RequestParam(defaultValue = "csv") ExportFormat format,
+            HttpServletResponse response) throws IOException {
+        pollExportService.checkExportable(id);
+        response.setContentType(format.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"poll-" + id + "." + format.getExtension() + "\"");
+        pollExportService.export(id, format, response.getOutputStream());
+    }
+
+    /**
+     * Live results as Server-Sent Events: a "snapshot" event with all counts,
+     * then "delta" events with the counts that changed, at most one per
+     * soundage.results.stream.interval-ms.
+     */
+    @GetMapping(value = "/{id}/results/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequiresAdmin
+    public SseEmitter streamResults(@PathVariable UUID id) {
+        return resultsStreamService.subscribe(id);
+    }
+
     @PostMapping
     @RequiresAdmin
     public ResponseEntity<ApiResponse<PollDetailDto>> create(
@@ -2,15 +2,14 @@ package com.soundage.api.poll.controller;
 
 import com.soundage.api.common.response.ApiResponse;
 import com.soundage.api.poll.dto.PollDetailDto;
-import com.soundage.api.poll.dto.PollDto;
 import com.soundage.api.poll.service.PollService;
 import com.soundage.api.user.entity.User;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -21,10 +20,18 @@ public class PollController {
 
     private final PollService pollService;
 
-    @GetMapping
-    public ResponseEntity<ApiResponse<List<PollDto>>> listActive() {
-        List<PollDto> polls = pollService.findAllActive();
-        return ResponseEntity.ok(ApiResponse.success("Active polls retrieved successfully", polls));
+    /**
+     * Polls accepting votes now, newest first, as an {@code ApiResponse} of a
+     * cursor page; the body is pre-serialized (see OpenPollsCache).
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> listActive(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = limit != null ? limit : pollService.getDefaultActivePageSize();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(pollService.findAllActive(cursor, pageSize));
     }
 
     @GetMapping("/{id}")
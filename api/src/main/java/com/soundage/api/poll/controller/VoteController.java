@@ -8,6 +8,7 @@ import com.soundage.api.user.entity.User;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -36,6 +37,7 @@ public class VoteController {
         String clientIp = httpRequest.getRemoteAddr();
 
         SubmitVoteResponse response = voteService.submitResponse(pollId, request, user, clientIp);
-        return ResponseEntity.ok(ApiResponse.success(response.getMessage(), response));
+        HttpStatus status = response.getReceiptId() != null ? HttpStatus.ACCEPTED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(ApiResponse.success(response.getMessage(), response));
     }
 }
@@ -16,7 +16,8 @@ public class PollResultsDto {
     private UUID pollId;
     private String pollTitle;
     private long totalResponses;
+    /** Options the results are segmented by (see PollService.findResults); null when unfiltered */
+    private List<UUID> filterOptionIds;
+    /** Aggregates only; voters and text answers have their own paged endpoints. */
     private List<QuestionResultDto> questionResults;
-    /** Names and emails of voters (or "Anonymous" for anonymous votes). */
-    private List<VoterInfoDto> voters;
 }
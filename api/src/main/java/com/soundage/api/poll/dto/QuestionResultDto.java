@@ -17,20 +17,33 @@ public class QuestionResultDto {
     private String questionTitle;
     private String type; // single_choice, multiple_choice, yes_no, text, rating
 
+    /** Responses that answered this question */
+    private long responseCount;
+
     /**
      * For single_choice, multiple_choice, yes_no: count and percentage per option
      */
     private List<OptionCountDto> optionCounts;
 
-    /** For rating: distribution 1-5 and average */
+    /** For rating: distribution over the question's scale and average */
     private List<RatingBucketDto> ratingDistribution;
     private Double averageRating;
 
-    /** For text: list of response strings (plain). */
-    private List<String> textResponses;
+    /** For rating: scale (from the question settings) and statistics of the ratings */
+    private Double ratingMin;
+    private Double ratingMax;
+    private Double ratingStep;
+    private long ratingCount;
+    private Double ratingStdDev;
+    private Double ratingMedian;
+    private Double ratingP90;
+
+    /** For ranking: per-option scores, best Borda score first */
+    private List<RankingOptionResultDto> rankingResults;
     /**
-     * For text: list of responses with voter info (name, email, text) for display
-     * as comments.
+     * For ranking: pairwiseMatrix[i][j] = rankings that put option
+     * pairwiseOptionIds[i] above option pairwiseOptionIds[j]
      */
-    private List<TextResponseEntryDto> textResponseEntries;
+    private List<UUID> pairwiseOptionIds;
+    private long[][] pairwiseMatrix;
 }
@@ -0,0 +1,27 @@
+package com.soundage.api.poll.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankingOptionResultDto {
+    private UUID optionId;
+    private String optionLabel;
+    private String imageUrl;
+    /** Borda score: (number of options - position) points per ranking */
+    private long bordaScore;
+    /** Rankings that include this option */
+    private long rankedCount;
+    /** Rankings that put this option first */
+    private long firstPlaceCount;
+    /** Mean and median position (1 = best) among rankings that include it; null if never ranked */
+    private Double meanPosition;
+    private Double medianPosition;
+}
@@ -10,7 +10,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class RatingBucketDto {
-    private int value;
+    /** Scale value (1-5 on the default scale) */
+    private double value;
     private long count;
     private double percentage;
 }
@@ -0,0 +1,34 @@
+package com.soundage.api.poll.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Frame of the live results stream. The first frame a subscriber receives is a
+ * snapshot with every count; later frames only carry the values that changed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultsDeltaDto {
+    private UUID pollId;
+    private boolean snapshot;
+    private long totalResponses;
+
+    /** Selection count per option id */
+    private Map<UUID, Long> optionCounts;
+
+    /** Responses that answered each question, per question id */
+    private Map<UUID, Long> questionResponseCounts;
+
+    /** For rating questions: distribution over the question's own scale and average, per question id */
+    private Map<UUID, List<RatingBucketDto>> ratingDistributions;
+    private Map<UUID, Double> averageRatings;
+}
@@ -14,5 +14,10 @@ import java.util.UUID;
 public class SubmitVoteResponse {
 
     private UUID responseId;
+    /**
+     * Set instead of responseId when the vote was queued for asynchronous writing
+     * (202 Accepted).
+     */
+    private UUID receiptId;
     private String message;
 }
@@ -0,0 +1,17 @@
+package com.soundage.api.poll.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TextTermDto {
+    /** Lowercased word */
+    private String term;
+    /** Answers to the question that contain the word */
+    private long count;
+}
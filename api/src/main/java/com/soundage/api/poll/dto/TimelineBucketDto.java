@@ -0,0 +1,21 @@
+package com.soundage.api.poll.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelineBucketDto {
+    /** Start of the bucket (UTC boundary of the requested granularity) */
+    private Instant bucketStart;
+    /** Responses first submitted in this bucket */
+    private long newResponses;
+    /** Existing responses changed in this bucket */
+    private long updatedResponses;
+}
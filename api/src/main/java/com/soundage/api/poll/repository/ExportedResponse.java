@@ -0,0 +1,20 @@
+package com.soundage.api.poll.repository;
+
+import com.soundage.api.poll.dto.VoterInfoDto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One response with all its answers, as streamed by
+ * {@link ResultsQueryRepository#streamResponses}.
+ */
+public record ExportedResponse(UUID responseId, Instant createdAt, VoterInfoDto voter, List<Answer> answers) {
+
+    /** One answer row; exactly the columns of answers that the export needs. */
+    public record Answer(UUID questionId, UUID optionId, String textValue, BigDecimal numericValue,
+            Integer position) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.soundage.api.poll.repository;
+
+import com.soundage.api.common.response.CursorPage;
+import com.soundage.api.poll.dto.PollDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Open polls (active, between startsAt and endsAt) with the time window
+ * applied in SQL through idx_polls_active_schedule.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OpenPollRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Open polls at {@code now} after {@code after} (null for the first page), newest first. */
+    public CursorPage<PollDto> findOpen(Instant now, PollCursor after, int limit) {
+        OffsetDateTime at = OffsetDateTime.ofInstant(now, ZoneOffset.UTC);
+        List<Object> args = new ArrayList<>(List.of(at, at));
+        String keyset = "";
+        if (after != null) {
+            keyset = "AND (created_at, id) < (?, ?)\n";
+            args.add(OffsetDateTime.ofInstant(after.createdAt(), ZoneOffset.UTC));
+            args.add(after.pollId());
+        }
+        args.add(limit + 1);
+        String sql = """
+                SELECT id, title, description, is_active, starts_at, ends_at, created_by, created_at, updated_at,
+                       CASE WHEN jsonb_typeof(settings -> 'allowAnonymous') = 'boolean'
+                            THEN (settings ->> 'allowAnonymous')::boolean END AS allow_anonymous
+                FROM polls
+                WHERE is_active = true
+                  AND (starts_at IS NULL OR starts_at <= ?)
+                  AND (ends_at IS NULL OR ends_at >= ?)
+                """ + keyset + """
+                ORDER BY created_at DESC, id DESC
+                LIMIT ?
+                """;
+        List<PollDto> items = new ArrayList<>(Math.min(limit, 256));
+        boolean[] more = new boolean[1];
+        jdbcTemplate.query(sql, rs -> {
+            if (items.size() == limit) {
+                more[0] = true;
+                return;
+            }
+            items.add(PollDto.builder()
+                    .id(rs.getObject("id", UUID.class))
+                    .title(rs.getString("title"))
+                    .description(rs.getString("description"))
+                    .isActive(rs.getBoolean("is_active"))
+                    .startsAt(toInstant(rs.getObject("starts_at", OffsetDateTime.class)))
+                    .endsAt(toInstant(rs.getObject("ends_at", OffsetDateTime.class)))
+                    .createdById(rs.getObject("created_by", UUID.class))
+                    .createdAt(toInstant(rs.getObject("created_at", OffsetDateTime.class)))
+                    .updatedAt(toInstant(rs.getObject("updated_at", OffsetDateTime.class)))
+                    .allowAnonymous(rs.getObject("allow_anonymous", Boolean.class))
+                    .build());
+        }, args.toArray());
+        String nextCursor = null;
+        if (more[0]) {
+            PollDto last = items.get(items.size() - 1);
+            nextCursor = new PollCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return CursorPage.of(items, nextCursor);
+    }
+
+    /**
+     * Next instant after {@code now} at which an active poll opens or closes,
+     * or null if none is scheduled.
+     */
+    public Instant findNextBoundary(Instant now) {
+        OffsetDateTime at = OffsetDateTime.ofInstant(now, ZoneOffset.UTC);
+        Timestamp next = jdbcTemplate.queryForObject("""
+                SELECT LEAST(
+                    (SELECT MIN(starts_at) FROM polls WHERE is_active = true AND starts_at > ?),
+                    (SELECT MIN(ends_at) FROM polls WHERE is_active = true AND ends_at >= ?))
+                """, Timestamp.class, at, at);
+        return next != null ? next.toInstant() : null;
+    }
+
+    private static Instant toInstant(OffsetDateTime value) {
+        return value != null ? value.toInstant() : null;
+    }
+}
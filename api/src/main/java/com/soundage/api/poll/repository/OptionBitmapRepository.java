@@ -0,0 +1,88 @@
+package com.soundage.api.poll.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Source data of the per-option response bitmaps: option selections by
+ * response ordinal (responses.seq), and the persisted bitmaps of
+ * poll_option_bitmaps, which are valid while their vote_version matches
+ * poll_tallies.vote_version ({@link TallyRepository#findVoteVersion}).
+ */
+@Repository
+@RequiredArgsConstructor
+public class OptionBitmapRepository {
+
+    private static final int SCAN_FETCH_SIZE = 10_000;
+
+    private static final String SELECT_SELECTIONS = """
+            SELECT a.option_id, r.seq
+            FROM answers a
+            JOIN responses r ON r.id = a.response_id
+            WHERE r.poll_id = ? AND a.option_id IS NOT NULL AND a.position IS NULL
+            """;
+
+    private static final String UPSERT_BITMAP = """
+            INSERT INTO poll_option_bitmaps (poll_id, option_id, vote_version, bitmap, built_at)
+            VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (poll_id, option_id) DO UPDATE
+            SET vote_version = EXCLUDED.vote_version, bitmap = EXCLUDED.bitmap, built_at = EXCLUDED.built_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Persisted bitmaps of a poll, by option id, or null unless every stored
+     * bitmap was built at {@code voteVersion}.
+     */
+    public Map<UUID, byte[]> findBitmaps(UUID pollId, long voteVersion) {
+        Map<UUID, byte[]> bitmaps = new HashMap<>();
+        boolean[] current = { true };
+        jdbcTemplate.query("SELECT option_id, vote_version, bitmap FROM poll_option_bitmaps WHERE poll_id = ?",
+                rs -> {
+                    current[0] &= rs.getLong("vote_version") == voteVersion;
+                    bitmaps.put(rs.getObject("option_id", UUID.class), rs.getBytes("bitmap"));
+                }, pollId);
+        return current[0] && !bitmaps.isEmpty() ? bitmaps : null;
+    }
+
+    /**
+     * Streams every option selection of a poll (ranking entries excluded) as
+     * (option id, response ordinal). Must run in a transaction so the driver
+     * uses a cursor instead of reading the whole result.
+     */
+    public void scanSelections(UUID pollId, SelectionConsumer consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_SELECTIONS);
+            ps.setFetchSize(SCAN_FETCH_SIZE);
+            ps.setObject(1, pollId);
+            return ps;
+        }, rs -> {
+            consumer.accept(rs.getObject(1, UUID.class), rs.getLong(2));
+        });
+    }
+
+    /** Replaces the persisted bitmaps of a poll by ones built at {@code voteVersion}. */
+    public void save(UUID pollId, long voteVersion, Map<UUID, byte[]> bitmaps) {
+        List<Object[]> rows = new ArrayList<>(bitmaps.size());
+        bitmaps.forEach((optionId, bitmap) -> rows.add(new Object[] { pollId, optionId, voteVersion, bitmap }));
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_BITMAP, rows);
+        }
+        jdbcTemplate.update("DELETE FROM poll_option_bitmaps WHERE poll_id = ? AND vote_version <> ?",
+                pollId, voteVersion);
+    }
+
+    @FunctionalInterface
+    public interface SelectionConsumer {
+        void accept(UUID optionId, long responseSeq);
+    }
+}
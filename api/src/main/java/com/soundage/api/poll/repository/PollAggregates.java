@@ -0,0 +1,112 @@
+package com.soundage.api.poll.repository;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Aggregated vote counts of one poll, sized by the number of questions and
+ * options rather than the number of votes, as loaded by
+ * {@link TallyRepository#load} and {@link ResultsQueryRepository#aggregate}.
+ */
+public final class PollAggregates {
+
+    private long totalResponses;
+    private final Map<UUID, Long> optionCounts = new HashMap<>();
+    private final Map<UUID, QuestionAggregate> questions = new HashMap<>();
+
+    public long getTotalResponses() {
+        return totalResponses;
+    }
+
+    public void setTotalResponses(long totalResponses) {
+        this.totalResponses = totalResponses;
+    }
+
+    public long getOptionCount(UUID optionId) {
+        return optionCounts.getOrDefault(optionId, 0L);
+    }
+
+    public void addOptionCount(UUID optionId, long count) {
+        optionCounts.merge(optionId, count, Long::sum);
+    }
+
+    /** Aggregate of a question; an empty one if nobody answered it. */
+    public QuestionAggregate getQuestion(UUID questionId) {
+        return questions.computeIfAbsent(questionId, id -> new QuestionAggregate());
+    }
+
+    public static final class QuestionAggregate {
+
+        private long responseCount;
+        private long ratingCount;
+        private BigDecimal ratingSum = BigDecimal.ZERO;
+        private BigDecimal ratingSumSquares = BigDecimal.ZERO;
+        private final TreeMap<BigDecimal, Long> ratingCounts = new TreeMap<>();
+        private final List<RankingPosition> rankingPositions = new ArrayList<>();
+        private final List<RankingPair> rankingPairs = new ArrayList<>();
+
+        /** Responses that answered the question. */
+        public long getResponseCount() {
+            return responseCount;
+        }
+
+        public void setResponseCount(long responseCount) {
+            this.responseCount = responseCount;
+        }
+
+        public long getRatingCount() {
+            return ratingCount;
+        }
+
+        public void setRatingCount(long ratingCount) {
+            this.ratingCount = ratingCount;
+        }
+
+        public BigDecimal getRatingSum() {
+            return ratingSum;
+        }
+
+        public void setRatingSum(BigDecimal ratingSum) {
+            this.ratingSum = ratingSum;
+        }
+
+        public BigDecimal getRatingSumSquares() {
+            return ratingSumSquares;
+        }
+
+        public void setRatingSumSquares(BigDecimal ratingSumSquares) {
+            this.ratingSumSquares = ratingSumSquares;
+        }
+
+        /** Answers per rating value, ordered by value. */
+        public TreeMap<BigDecimal, Long> getRatingCounts() {
+            return ratingCounts;
+        }
+
+        public void addRatingCount(BigDecimal value, long count) {
+            ratingCounts.merge(value.stripTrailingZeros(), count, Long::sum);
+        }
+
+        public void addRankingPosition(UUID optionId, int position, long count) {
+            rankingPositions.add(new RankingPosition(optionId, position, count));
+        }
+
+        public void addRankingPair(UUID winnerOptionId, UUID loserOptionId, long count) {
+            rankingPairs.add(new RankingPair(winnerOptionId, loserOptionId, count));
+        }
+
+        public List<RankingPosition> getRankingPositions() {
+            return rankingPositions;
+        }
+
+        public List<RankingPair> getRankingPairs() {
+            return rankingPairs;
+        }
+    }
+
+    public record RankingPosition(UUID optionId, int position, long count) {
+    }
+
+    public record RankingPair(UUID winnerOptionId, UUID loserOptionId, long count) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.soundage.api.poll.repository;
+
+import com.soundage.api.common.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the list of open polls, ordered by (created_at, id)
+ * descending. Encoded as an opaque URL-safe string for clients.
+ */
+public record PollCursor(Instant createdAt, UUID pollId) {
+
+    public String encode() {
+        String raw = createdAt + "|" + pollId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or null for a null/blank cursor (first page)
+     * @throws InvalidCursorException if the cursor is malformed
+     */
+    public static PollCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new PollCursor(Instant.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,7 +16,12 @@ public interface PollRepository extends JpaRepository<Poll, UUID>, JpaSpecificat
 
         java.util.List<Poll> findByCreatedById(UUID createdById);
 
-        java.util.List<Poll> findByIsActiveTrue();
+        /**
+         * Active polls that have not ended at {@code now} (open or scheduled),
+         * through idx_polls_active_schedule.
+         */
+        @Query("SELECT p FROM Poll p WHERE p.isActive = true AND (p.endsAt IS NULL OR p.endsAt >= :now)")
+        java.util.List<Poll> findActiveNotEnded(@Param("now") Instant now);
 
         /**
          * Load poll with questions in one query to avoid lazy-load issues in results.
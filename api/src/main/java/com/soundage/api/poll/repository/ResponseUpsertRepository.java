@@ -0,0 +1,59 @@
+package com.soundage.api.poll.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Native upsert of a voter's response row. Relies on the partial unique indexes
+ * idx_responses_poll_user / idx_responses_poll_anonymous so that concurrent
+ * submissions from the same voter resolve in the database instead of failing
+ * with a duplicate key.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ResponseUpsertRepository {
+
+    private static final String UPSERT_FOR_USER = """
+            INSERT INTO responses (poll_id, user_id, ip_address)
+            VALUES (?, ?, ?)
+            ON CONFLICT (poll_id, user_id) WHERE user_id IS NOT NULL
+            DO UPDATE SET ip_address = EXCLUDED.ip_address
+            RETURNING id, seq, (xmax = 0) AS inserted
+            """;
+
+    private static final String UPSERT_FOR_ANONYMOUS = """
+            INSERT INTO responses (poll_id, anonymous_id, ip_address)
+            VALUES (?, ?, ?)
+            ON CONFLICT (poll_id, anonymous_id) WHERE anonymous_id IS NOT NULL
+            DO UPDATE SET ip_address = EXCLUDED.ip_address
+            RETURNING id, seq, (xmax = 0) AS inserted
+            """;
+
+    private static final RowMapper<UpsertResult> ROW_MAPPER = (rs, rowNum) -> new UpsertResult(
+            rs.getObject("id", UUID.class),
+            rs.getLong("seq"),
+            rs.getBoolean("inserted"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UpsertResult upsertForUser(UUID pollId, UUID userId, String ipAddress) {
+        return jdbcTemplate.queryForObject(UPSERT_FOR_USER, ROW_MAPPER, pollId, userId, ipAddress);
+    }
+
+    public UpsertResult upsertForAnonymous(UUID pollId, String anonymousId, String ipAddress) {
+        return jdbcTemplate.queryForObject(UPSERT_FOR_ANONYMOUS, ROW_MAPPER, pollId, anonymousId, ipAddress);
+    }
+
+    /**
+     * @param responseId id of the inserted or existing response
+     * @param seq        ordinal of the response (responses.seq), used in the option bitmaps
+     * @param inserted   true if the row was created by this statement, false if
+     *                   an existing response was updated
+     */
+    public record UpsertResult(UUID responseId, long seq, boolean inserted) {
+    }
+}
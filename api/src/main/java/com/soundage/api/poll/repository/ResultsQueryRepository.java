@@ -0,0 +1,256 @@
+package com.soundage.api.poll.repository;
+
+import com.soundage.api.common.response.CursorPage;
+import com.soundage.api.poll.dto.TextResponseEntryDto;
+import com.soundage.api.poll.dto.VoterInfoDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Read-side queries for poll results. Aggregates are computed by the database
+ * (GROUP BY over answers); voters and text answers are read as flat, keyset
+ * paginated projections and exports as a forward-only stream, so no
+ * Answer/Response/User entities are loaded.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ResultsQueryRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Computes the aggregates of a poll from the answers, in six queries. */
+    public PollAggregates aggregate(UUID pollId) {
+        PollAggregates aggregates = new PollAggregates();
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM responses WHERE poll_id = ?", Long.class, pollId);
+        aggregates.setTotalResponses(total != null ? total : 0);
+
+        // A rating answered with a numeric option counts as that option's value
+        jdbcTemplate.query("""
+                SELECT a.question_id,
+                       COUNT(DISTINCT a.response_id) AS response_count,
+                       COUNT(COALESCE(a.numeric_value, o.numeric_value)) FILTER (WHERE q.type = 'rating') AS rating_count,
+                       COALESCE(SUM(COALESCE(a.numeric_value, o.numeric_value)) FILTER (WHERE q.type = 'rating'), 0) AS rating_sum,
+                       COALESCE(SUM(COALESCE(a.numeric_value, o.numeric_value) * COALESCE(a.numeric_value, o.numeric_value))
+                                FILTER (WHERE q.type = 'rating'), 0) AS rating_sum_squares
+                FROM answers a
+                JOIN questions q ON q.id = a.question_id
+                LEFT JOIN options o ON o.id = a.option_id
+                WHERE q.poll_id = ?
+                GROUP BY a.question_id
+                """, rs -> {
+            PollAggregates.QuestionAggregate q = aggregates.getQuestion(rs.getObject("question_id", UUID.class));
+            q.setResponseCount(rs.getLong("response_count"));
+            q.setRatingCount(rs.getLong("rating_count"));
+            q.setRatingSum(rs.getBigDecimal("rating_sum"));
+            q.setRatingSumSquares(rs.getBigDecimal("rating_sum_squares"));
+        }, pollId);
+
+        jdbcTemplate.query("""
+                SELECT a.option_id, COUNT(*) AS selection_count
+                FROM answers a
+                JOIN questions q ON q.id = a.question_id
+                WHERE q.poll_id = ? AND a.option_id IS NOT NULL AND a.position IS NULL
+                GROUP BY a.option_id
+                """, rs -> {
+            aggregates.addOptionCount(rs.getObject("option_id", UUID.class), rs.getLong("selection_count"));
+        }, pollId);
+
+        jdbcTemplate.query("""
+                SELECT a.question_id, COALESCE(a.numeric_value, o.numeric_value) AS value, COUNT(*) AS answer_count
+                FROM answers a
+                JOIN questions q ON q.id = a.question_id AND q.type = 'rating'
+                LEFT JOIN options o ON o.id = a.option_id
+                WHERE q.poll_id = ? AND COALESCE(a.numeric_value, o.numeric_value) IS NOT NULL
+                GROUP BY a.question_id, COALESCE(a.numeric_value, o.numeric_value)
+                """, rs -> {
+            aggregates.getQuestion(rs.getObject("question_id", UUID.class))
+                    .addRatingCount(rs.getBigDecimal("value"), rs.getLong("answer_count"));
+        }, pollId);
+
+        jdbcTemplate.query("""
+                SELECT a.question_id, a.option_id, a.position, COUNT(*) AS ranking_count
+                FROM answers a
+                JOIN questions q ON q.id = a.question_id AND q.type = 'ranking'
+                WHERE q.poll_id = ? AND a.option_id IS NOT NULL AND a.position IS NOT NULL
+                GROUP BY a.question_id, a.option_id, a.position
+                """, rs -> {
+            aggregates.getQuestion(rs.getObject("question_id", UUID.class)).addRankingPosition(
+                    rs.getObject("option_id", UUID.class), rs.getInt("position"), rs.getLong("ranking_count"));
+        }, pollId);
+
+        // Pairs ranked by the same voter: w above l
+        jdbcTemplate.query("""
+                SELECT w.question_id, w.option_id AS winner_option_id, l.option_id AS loser_option_id,
+                       COUNT(*) AS pair_count
+                FROM answers w
+                JOIN questions q ON q.id = w.question_id AND q.type = 'ranking'
+                JOIN answers l ON l.response_id = w.response_id AND l.question_id = w.question_id
+                              AND l.position > w.position AND l.option_id IS NOT NULL
+                WHERE q.poll_id = ? AND w.option_id IS NOT NULL AND w.position IS NOT NULL
+                GROUP BY w.question_id, w.option_id, l.option_id
+                """, rs -> {
+            aggregates.getQuestion(rs.getObject("question_id", UUID.class)).addRankingPair(
+                    rs.getObject("winner_option_id", UUID.class), rs.getObject("loser_option_id", UUID.class),
+                    rs.getLong("pair_count"));
+        }, pollId);
+        return aggregates;
+    }
+
+    /** Voters of a poll after {@code after} (null for the first page), oldest first. */
+    public CursorPage<VoterInfoDto> findVoters(UUID pollId, ResponseCursor after, int limit) {
+        List<Object> args = new ArrayList<>(List.of(pollId));
+        String sql = """
+                SELECT r.id, r.created_at, u.name, u.last_name, u.email
+                FROM responses r
+                LEFT JOIN users u ON u.id = r.user_id
+                WHERE r.poll_id = ?
+                """ + keyset(after, args) + """
+                ORDER BY r.created_at, r.id
+                LIMIT ?
+                """;
+        args.add(limit + 1);
+        return page(sql, args, limit, ResultsQueryRepository::toVoter);
+    }
+
+    /**
+     * Non-blank text answers of a question after {@code after} (null for the
+     * first page), in response order. With a {@code query} (web search syntax:
+     * words, "quoted phrases", or, -excluded) only matching answers are
+     * returned, found through the full-text index on answers.text_search.
+     */
+    public CursorPage<TextResponseEntryDto> findTextEntries(UUID questionId, String query, ResponseCursor after,
+            int limit) {
+        List<Object> args = new ArrayList<>(List.of(questionId));
+        String search = "";
+        if (query != null) {
+            search = "AND a.text_search @@ websearch_to_tsquery('simple', ?)\n";
+            args.add(query);
+        }
+        String sql = """
+                SELECT r.id, r.created_at, a.text_value, u.name, u.last_name, u.email
+                FROM answers a
+                JOIN responses r ON r.id = a.response_id
+                LEFT JOIN users u ON u.id = r.user_id
+                WHERE a.question_id = ? AND a.text_value IS NOT NULL AND TRIM(a.text_value) <> ''
+                """ + search + keyset(after, args) + """
+                ORDER BY r.created_at, r.id
+                LIMIT ?
+                """;
+        args.add(limit + 1);
+        return page(sql, args, limit, rs -> {
+            VoterInfoDto voter = toVoter(rs);
+            return TextResponseEntryDto.builder()
+                    .displayName(voter.getDisplayName())
+                    .email(voter.getEmail())
+                    .anonymous(voter.isAnonymous())
+                    .text(rs.getString("text_value"))
+                    .build();
+        });
+    }
+
+    /**
+     * Streams every response of a poll with its answers, oldest first, one
+     * response at a time. Rows are read through a server-side cursor of
+     * {@code fetchSize} rows, so memory does not grow with the poll; must run in
+     * a transaction (the driver only uses a cursor outside autocommit).
+     */
+    public void streamResponses(UUID pollId, int fetchSize, Consumer<ExportedResponse> consumer) {
+        String sql = """
+                SELECT r.id, r.created_at, u.name, u.last_name, u.email,
+                       a.question_id, a.option_id, a.text_value, a.numeric_value, a.position
+                FROM responses r
+                LEFT JOIN users u ON u.id = r.user_id
+                LEFT JOIN answers a ON a.response_id = r.id
+                WHERE r.poll_id = ?
+                ORDER BY r.created_at, r.id, a.question_id, a.position
+                """;
+        ExportedResponse[] current = new ExportedResponse[1];
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setObject(1, pollId);
+            return ps;
+        }, rs -> {
+            UUID responseId = rs.getObject("id", UUID.class);
+            if (current[0] == null || !current[0].responseId().equals(responseId)) {
+                if (current[0] != null)
+                    consumer.accept(current[0]);
+                current[0] = new ExportedResponse(responseId,
+                        rs.getObject("created_at", OffsetDateTime.class).toInstant(), toVoter(rs), new ArrayList<>());
+            }
+            UUID questionId = rs.getObject("question_id", UUID.class);
+            if (questionId != null) {
+                current[0].answers().add(new ExportedResponse.Answer(questionId,
+                        rs.getObject("option_id", UUID.class),
+                        rs.getString("text_value"),
+                        rs.getBigDecimal("numeric_value"),
+                        rs.getObject("position", Integer.class)));
+            }
+        });
+        if (current[0] != null)
+            consumer.accept(current[0]);
+    }
+
+    private static String keyset(ResponseCursor after, List<Object> args) {
+        if (after == null)
+            return "";
+        args.add(OffsetDateTime.ofInstant(after.createdAt(), ZoneOffset.UTC));
+        args.add(after.responseId());
+        return "AND (r.created_at, r.id) > (?, ?)\n";
+    }
+
+    /** Reads up to limit + 1 rows; the extra row only tells whether there is a next page. */
+    private <T> CursorPage<T> page(String sql, List<Object> args, int limit, RowReader<T> reader) {
+        List<T> items = new ArrayList<>(Math.min(limit, 256));
+        ResponseCursor[] last = new ResponseCursor[1];
+        boolean[] more = new boolean[1];
+        jdbcTemplate.query(sql, rs -> {
+            if (items.size() == limit) {
+                more[0] = true;
+                return;
+            }
+            items.add(reader.read(rs));
+            last[0] = new ResponseCursor(rs.getObject("created_at", OffsetDateTime.class).toInstant(),
+                    rs.getObject("id", UUID.class));
+        }, args.toArray());
+        return CursorPage.of(items, more[0] ? last[0].encode() : null);
+    }
+
+    @FunctionalInterface
+    private interface RowReader<T> {
+        T read(ResultSet rs) throws SQLException;
+    }
+
+    private static VoterInfoDto toVoter(ResultSet rs) throws SQLException {
+        String email = rs.getString("email");
+        if (email == null) {
+            return VoterInfoDto.builder()
+                    .displayName("Anonymous")
+                    .email(null)
+                    .anonymous(true)
+                    .build();
+        }
+        String name = rs.getString("name");
+        String lastName = rs.getString("last_name");
+        String displayName = (name != null ? name : "") + (lastName != null ? " " + lastName : "").trim();
+        if (displayName.isBlank())
+            displayName = email;
+        return VoterInfoDto.builder()
+                .displayName(displayName)
+                .email(email)
+                .anonymous(false)
+                .build();
+    }
+}
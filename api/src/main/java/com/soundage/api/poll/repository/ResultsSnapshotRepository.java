@@ -0,0 +1,83 @@
+package com.soundage.api.poll.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stores the frozen results of closed polls (poll_result_snapshots and their
+ * chunks). Reads only return a snapshot while it is current, i.e. its
+ * vote_version still matches poll_tallies.vote_version.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ResultsSnapshotRepository {
+
+    private static final String CURRENT = """
+            FROM poll_result_snapshots s
+            LEFT JOIN poll_tallies t ON t.poll_id = s.poll_id
+            WHERE s.poll_id = ? AND s.vote_version = COALESCE(t.vote_version, 0)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public boolean isCurrent(UUID pollId) {
+        return !jdbcTemplate.queryForList("SELECT 1 " + CURRENT, Integer.class, pollId).isEmpty();
+    }
+
+    /** Compressed results of the current snapshot, or null if there is none. */
+    public byte[] findCurrentResults(UUID pollId) {
+        List<byte[]> results = jdbcTemplate.query("SELECT s.results " + CURRENT,
+                (rs, rowNum) -> rs.getBytes(1), pollId);
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    /** Compressed chunks from..to (inclusive) of a section, in order. */
+    public List<byte[]> findChunks(UUID pollId, String section, int fromChunk, int toChunk) {
+        return jdbcTemplate.query("""
+                SELECT items FROM poll_result_snapshot_chunks
+                WHERE poll_id = ? AND section = ? AND chunk_no BETWEEN ? AND ?
+                ORDER BY chunk_no
+                """, (rs, rowNum) -> rs.getBytes(1), pollId, section, fromChunk, toChunk);
+    }
+
+    public void insert(UUID pollId, long voteVersion, byte[] results) {
+        jdbcTemplate.update("INSERT INTO poll_result_snapshots (poll_id, vote_version, results) VALUES (?, ?, ?)",
+                pollId, voteVersion, results);
+    }
+
+    public void insertChunk(UUID pollId, String section, int chunkNo, int itemCount, byte[] items) {
+        jdbcTemplate.update("""
+                INSERT INTO poll_result_snapshot_chunks (poll_id, section, chunk_no, item_count, items)
+                VALUES (?, ?, ?, ?, ?)
+                """, pollId, section, chunkNo, itemCount, items);
+    }
+
+    /** Deletes the snapshot of a poll with its chunks. */
+    public void delete(UUID pollId) {
+        jdbcTemplate.update("DELETE FROM poll_result_snapshots WHERE poll_id = ?", pollId);
+    }
+
+    /**
+     * Closed polls (ended before {@code endedBefore}, or deactivated) without a
+     * current snapshot.
+     */
+    public List<UUID> findPollsToFinalize(Instant endedBefore, int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT p.id
+                FROM polls p
+                LEFT JOIN poll_result_snapshots s ON s.poll_id = p.id
+                LEFT JOIN poll_tallies t ON t.poll_id = p.id
+                WHERE (p.ends_at < ? OR p.is_active = false)
+                  AND (s.poll_id IS NULL OR s.vote_version <> COALESCE(t.vote_version, 0))
+                ORDER BY p.ends_at NULLS LAST
+                LIMIT ?
+                """, UUID.class, OffsetDateTime.ofInstant(endedBefore, ZoneOffset.UTC), limit);
+    }
+}
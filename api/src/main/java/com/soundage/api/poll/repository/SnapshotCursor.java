@@ -0,0 +1,37 @@
+package com.soundage.api.poll.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a section of a results snapshot. Snapshots never change, so a
+ * plain offset is stable; encoded as an opaque URL-safe string like
+ * {@link ResponseCursor}, from which it is told apart by a prefix.
+ */
+public record SnapshotCursor(int offset) {
+
+    private static final String PREFIX = "snapshot|";
+
+    public String encode() {
+        String raw = PREFIX + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, offset 0 for a null/blank cursor, or null if
+     *         the cursor is not a snapshot cursor (e.g. a live keyset cursor)
+     */
+    public static SnapshotCursor tryDecode(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return new SnapshotCursor(0);
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX))
+                return null;
+            int offset = Integer.parseInt(raw.substring(PREFIX.length()));
+            return offset >= 0 ? new SnapshotCursor(offset) : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
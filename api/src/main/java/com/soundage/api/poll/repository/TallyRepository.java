@@ -0,0 +1,232 @@
+package com.soundage.api.poll.repository;
+
+import com.soundage.api.poll.dto.TextTermDto;
+import com.soundage.api.poll.service.TallyDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Reads and updates the vote tally tables (poll_tallies, question_tallies,
+ * option_tallies, rating_tallies, ranking_position_tallies,
+ * ranking_pair_tallies, text_term_tallies) and the vote timeline
+ * (poll_vote_rollups). Updates are additive upserts so they can run
+ * in the vote transaction without reading the current value first.
+ * <p>
+ * Every vote that changes something updates its poll's poll_tallies row
+ * (total_responses, vote_version) and three poll_vote_rollups rows, so votes
+ * on the same poll serialize on those rows until commit; batching votes
+ * (write-behind ingestion) is what amortizes this on hot polls. To keep
+ * concurrent vote transactions from deadlocking, {@link #apply} always takes
+ * the row locks in the same order: tables in a fixed order (per-poll rows
+ * first), and rows within a table sorted by key ({@link TallyDelta}).
+ */
+@Repository
+@RequiredArgsConstructor
+public class TallyRepository {
+
+    private static final String UPSERT_POLL = """
+            INSERT INTO poll_tallies (poll_id, total_responses, vote_version) VALUES (?, ?, ?)
+            ON CONFLICT (poll_id) DO UPDATE
+            SET total_responses = poll_tallies.total_responses + EXCLUDED.total_responses,
+                vote_version = poll_tallies.vote_version + EXCLUDED.vote_version
+            """;
+
+    private static final String UPSERT_QUESTION = """
+            INSERT INTO question_tallies (question_id, response_count, rating_count, rating_sum, rating_sum_squares)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (question_id) DO UPDATE
+            SET response_count = question_tallies.response_count + EXCLUDED.response_count,
+                rating_count = question_tallies.rating_count + EXCLUDED.rating_count,
+                rating_sum = question_tallies.rating_sum + EXCLUDED.rating_sum,
+                rating_sum_squares = question_tallies.rating_sum_squares + EXCLUDED.rating_sum_squares
+            """;
+
+    private static final String UPSERT_OPTION = """
+            INSERT INTO option_tallies (option_id, question_id, selection_count) VALUES (?, ?, ?)
+            ON CONFLICT (option_id) DO UPDATE
+            SET selection_count = option_tallies.selection_count + EXCLUDED.selection_count
+            """;
+
+    private static final String UPSERT_RATING = """
+            INSERT INTO rating_tallies (question_id, value, answer_count) VALUES (?, ?, ?)
+            ON CONFLICT (question_id, value) DO UPDATE
+            SET answer_count = rating_tallies.answer_count + EXCLUDED.answer_count
+            """;
+
+    private static final String UPSERT_RANKING_POSITION = """
+            INSERT INTO ranking_position_tallies (question_id, option_id, position, ranking_count) VALUES (?, ?, ?, ?)
+            ON CONFLICT (question_id, option_id, position) DO UPDATE
+            SET ranking_count = ranking_position_tallies.ranking_count + EXCLUDED.ranking_count
+            """;
+
+    private static final String UPSERT_RANKING_PAIR = """
+            INSERT INTO ranking_pair_tallies (question_id, winner_option_id, loser_option_id, pair_count)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (question_id, winner_option_id, loser_option_id) DO UPDATE
+            SET pair_count = ranking_pair_tallies.pair_count + EXCLUDED.pair_count
+            """;
+
+    private static final String UPSERT_TEXT_TERM = """
+            INSERT INTO text_term_tallies (question_id, term, answer_count) VALUES (?, ?, ?)
+            ON CONFLICT (question_id, term) DO UPDATE
+            SET answer_count = text_term_tallies.answer_count + EXCLUDED.answer_count
+            """;
+
+    private static final String UPSERT_ROLLUP = """
+            INSERT INTO poll_vote_rollups (poll_id, granularity, bucket_start, new_responses, updated_responses)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (poll_id, granularity, bucket_start) DO UPDATE
+            SET new_responses = poll_vote_rollups.new_responses + EXCLUDED.new_responses,
+                updated_responses = poll_vote_rollups.updated_responses + EXCLUDED.updated_responses
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Applies a delta; must run in the transaction that wrote the votes. The
+     * statement order below is the lock order; keep it when adding tables.
+     */
+    public void apply(TallyDelta delta) {
+        Map<UUID, Long> responses = delta.getResponses();
+        Map<UUID, Long> votes = delta.getVotes();
+        Set<UUID> pollIds = new TreeSet<>(responses.keySet());
+        pollIds.addAll(votes.keySet());
+        List<Object[]> polls = new ArrayList<>();
+        for (UUID pollId : pollIds) {
+            polls.add(new Object[] { pollId, responses.getOrDefault(pollId, 0L), votes.getOrDefault(pollId, 0L) });
+        }
+        batch(UPSERT_POLL, polls);
+
+        List<Object[]> rollups = new ArrayList<>();
+        delta.getRollups().forEach((k, c) -> rollups.add(new Object[] { k.pollId(), k.granularity().name(),
+                OffsetDateTime.ofInstant(k.bucketStart(), ZoneOffset.UTC), c[0], c[1] }));
+        batch(UPSERT_ROLLUP, rollups);
+
+        Set<UUID> questionIds = new TreeSet<>(delta.getQuestionResponses().keySet());
+        questionIds.addAll(delta.getRatingQuestions());
+        Map<UUID, Long> questionResponses = delta.getQuestionResponses();
+        List<Object[]> questions = new ArrayList<>();
+        for (UUID q : questionIds) {
+            questions.add(new Object[] { q, questionResponses.getOrDefault(q, 0L),
+                    delta.getRatingCount(q), delta.getRatingSum(q), delta.getRatingSumSquares(q) });
+        }
+        batch(UPSERT_QUESTION, questions);
+
+        List<Object[]> options = new ArrayList<>();
+        delta.getOptions().forEach((optionId, d) -> options.add(
+                new Object[] { optionId, delta.getOptionQuestion(optionId), d }));
+        batch(UPSERT_OPTION, options);
+
+        List<Object[]> ratings = new ArrayList<>();
+        delta.getRatingValues().forEach((k, d) -> ratings.add(new Object[] { k.questionId(), k.value(), d }));
+        batch(UPSERT_RATING, ratings);
+
+        List<Object[]> positions = new ArrayList<>();
+        delta.getRankingPositions().forEach((k, d) -> positions.add(
+                new Object[] { k.questionId(), k.optionId(), k.position(), d }));
+        batch(UPSERT_RANKING_POSITION, positions);
+
+        List<Object[]> pairs = new ArrayList<>();
+        delta.getRankingPairs().forEach((k, d) -> pairs.add(
+                new Object[] { k.questionId(), k.winnerOptionId(), k.loserOptionId(), d }));
+        batch(UPSERT_RANKING_PAIR, pairs);
+
+        List<Object[]> terms = new ArrayList<>();
+        delta.getTextTerms().forEach((k, d) -> terms.add(new Object[] { k.questionId(), k.term(), d }));
+        batch(UPSERT_TEXT_TERM, terms);
+    }
+
+    /** Number of answer-changing votes the poll has received (0 before its first vote). */
+    public long findVoteVersion(UUID pollId) {
+        List<Long> versions = jdbcTemplate.queryForList(
+                "SELECT vote_version FROM poll_tallies WHERE poll_id = ?", Long.class, pollId);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    /** Loads all tallies of a poll with a constant number of queries. */
+    public PollAggregates load(UUID pollId) {
+        PollAggregates aggregates = new PollAggregates();
+        List<Long> total = jdbcTemplate.queryForList(
+                "SELECT total_responses FROM poll_tallies WHERE poll_id = ?", Long.class, pollId);
+        aggregates.setTotalResponses(total.isEmpty() ? 0 : total.get(0));
+
+        jdbcTemplate.query("""
+                SELECT t.question_id, t.response_count, t.rating_count, t.rating_sum, t.rating_sum_squares
+                FROM question_tallies t JOIN questions q ON q.id = t.question_id
+                WHERE q.poll_id = ?
+                """, rs -> {
+            PollAggregates.QuestionAggregate q = aggregates.getQuestion(rs.getObject("question_id", UUID.class));
+            q.setResponseCount(rs.getLong("response_count"));
+            q.setRatingCount(rs.getLong("rating_count"));
+            q.setRatingSum(rs.getBigDecimal("rating_sum"));
+            q.setRatingSumSquares(rs.getBigDecimal("rating_sum_squares"));
+        }, pollId);
+
+        jdbcTemplate.query("""
+                SELECT t.option_id, t.selection_count
+                FROM option_tallies t JOIN questions q ON q.id = t.question_id
+                WHERE q.poll_id = ?
+                """, rs -> {
+            aggregates.addOptionCount(rs.getObject("option_id", UUID.class), rs.getLong("selection_count"));
+        }, pollId);
+
+        jdbcTemplate.query("""
+                SELECT t.question_id, t.value, t.answer_count
+                FROM rating_tallies t JOIN questions q ON q.id = t.question_id
+                WHERE q.poll_id = ? AND t.answer_count <> 0
+                """, rs -> {
+            aggregates.getQuestion(rs.getObject("question_id", UUID.class))
+                    .addRatingCount(rs.getBigDecimal("value"), rs.getLong("answer_count"));
+        }, pollId);
+
+        jdbcTemplate.query("""
+                SELECT t.question_id, t.option_id, t.position, t.ranking_count
+                FROM ranking_position_tallies t JOIN questions q ON q.id = t.question_id
+                WHERE q.poll_id = ? AND t.ranking_count <> 0
+                """, rs -> {
+            aggregates.getQuestion(rs.getObject("question_id", UUID.class)).addRankingPosition(
+                    rs.getObject("option_id", UUID.class), rs.getInt("position"), rs.getLong("ranking_count"));
+        }, pollId);
+
+        jdbcTemplate.query("""
+                SELECT t.question_id, t.winner_option_id, t.loser_option_id, t.pair_count
+                FROM ranking_pair_tallies t JOIN questions q ON q.id = t.question_id
+                WHERE q.poll_id = ? AND t.pair_count <> 0
+                """, rs -> {
+            aggregates.getQuestion(rs.getObject("question_id", UUID.class)).addRankingPair(
+                    rs.getObject("winner_option_id", UUID.class), rs.getObject("loser_option_id", UUID.class),
+                    rs.getLong("pair_count"));
+        }, pollId);
+        return aggregates;
+    }
+
+    /** Most frequent terms of a text question, by number of answers containing them. */
+    public List<TextTermDto> findTopTerms(UUID questionId, int limit) {
+        return jdbcTemplate.query("""
+                SELECT term, answer_count
+                FROM text_term_tallies
+                WHERE question_id = ? AND answer_count > 0
+                ORDER BY answer_count DESC, term
+                LIMIT ?
+                """, (rs, rowNum) -> TextTermDto.builder()
+                .term(rs.getString("term"))
+                .count(rs.getLong("answer_count"))
+                .build(), questionId, limit);
+    }
+
+    private void batch(String sql, List<Object[]> args) {
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, args);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.soundage.api.poll.repository;
+
+import com.soundage.api.poll.dto.TimelineBucketDto;
+import com.soundage.api.poll.service.RollupGranularity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads the vote timeline (poll_vote_rollups). Rows are written by
+ * {@link TallyRepository} together with the other tallies.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VoteRollupRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Non-empty buckets of a poll with from <= bucket_start < to, oldest first. */
+    public List<TimelineBucketDto> findBuckets(UUID pollId, RollupGranularity granularity, Instant from, Instant to) {
+        return jdbcTemplate.query("""
+                SELECT bucket_start, new_responses, updated_responses
+                FROM poll_vote_rollups
+                WHERE poll_id = ? AND granularity = ? AND bucket_start >= ? AND bucket_start < ?
+                ORDER BY bucket_start
+                """, (rs, i) -> TimelineBucketDto.builder()
+                .bucketStart(rs.getObject("bucket_start", OffsetDateTime.class).toInstant())
+                .newResponses(rs.getLong("new_responses"))
+                .updatedResponses(rs.getLong("updated_responses"))
+                .build(),
+                pollId, granularity.name(), utc(from), utc(to));
+    }
+
+    /** Deletes buckets of the given granularity that start before {@code cutoff}. */
+    public int deleteBefore(RollupGranularity granularity, Instant cutoff) {
+        return jdbcTemplate.update("DELETE FROM poll_vote_rollups WHERE granularity = ? AND bucket_start < ?",
+                granularity.name(), utc(cutoff));
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
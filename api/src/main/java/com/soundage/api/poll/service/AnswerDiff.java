@@ -0,0 +1,106 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.entity.Answer;
+
+import java.util.*;
+
+/**
+ * Difference between the answers stored for a response and the answers of an
+ * incoming vote. Unchanged rows are left alone, rows whose value changed in the
+ * same slot (e.g. a new ranking position or an edited text) are updated in
+ * place, and only the remainder is deleted or inserted.
+ */
+public final class AnswerDiff {
+
+    private final List<Answer> toInsert = new ArrayList<>();
+    private final List<Answer> toDelete = new ArrayList<>();
+    private final List<Answer> toUpdate = new ArrayList<>();
+    private final List<AnswerKey> removed = new ArrayList<>();
+    private final List<AnswerKey> added = new ArrayList<>();
+
+    private AnswerDiff() {
+    }
+
+    /**
+     * Rows of {@code existing} updated in place are modified by this call; take
+     * whatever is needed of the previous values ({@link AnswerKey#of}) first.
+     */
+    public static AnswerDiff compute(List<Answer> existing, List<Answer> incoming) {
+        AnswerDiff diff = new AnswerDiff();
+
+        Map<AnswerKey, Deque<Answer>> existingByKey = new HashMap<>();
+        for (Answer a : existing) {
+            existingByKey.computeIfAbsent(AnswerKey.of(a), k -> new ArrayDeque<>()).add(a);
+        }
+
+        List<Answer> unmatched = new ArrayList<>();
+        for (Answer a : incoming) {
+            Deque<Answer> same = existingByKey.get(AnswerKey.of(a));
+            if (same != null && !same.isEmpty()) {
+                same.poll();
+            } else {
+                unmatched.add(a);
+            }
+        }
+
+        Map<AnswerKey.SlotKey, Deque<Answer>> leftoverBySlot = new HashMap<>();
+        for (Deque<Answer> rest : existingByKey.values()) {
+            for (Answer a : rest) {
+                leftoverBySlot.computeIfAbsent(AnswerKey.of(a).slot(), k -> new ArrayDeque<>()).add(a);
+            }
+        }
+
+        for (Answer a : unmatched) {
+            AnswerKey key = AnswerKey.of(a);
+            Deque<Answer> slot = leftoverBySlot.get(key.slot());
+            Answer target = slot != null ? slot.poll() : null;
+            if (target != null) {
+                diff.removed.add(AnswerKey.of(target));
+                target.setTextValue(a.getTextValue());
+                target.setNumericValue(a.getNumericValue());
+                target.setPosition(a.getPosition());
+                diff.toUpdate.add(target);
+            } else {
+                diff.toInsert.add(a);
+            }
+            diff.added.add(key);
+        }
+
+        for (Deque<Answer> rest : leftoverBySlot.values()) {
+            for (Answer a : rest) {
+                diff.removed.add(AnswerKey.of(a));
+                diff.toDelete.add(a);
+            }
+        }
+        return diff;
+    }
+
+    /** New rows to insert. */
+    public List<Answer> toInsert() {
+        return toInsert;
+    }
+
+    /** Stored rows no longer present in the vote. */
+    public List<Answer> toDelete() {
+        return toDelete;
+    }
+
+    /** Stored rows whose value was changed in place (already mutated). */
+    public List<Answer> toUpdate() {
+        return toUpdate;
+    }
+
+    /** Values that are no longer part of the vote (deleted or overwritten). */
+    public List<AnswerKey> removed() {
+        return removed;
+    }
+
+    /** Values that became part of the vote (inserted or written in place). */
+    public List<AnswerKey> added() {
+        return added;
+    }
+
+    public boolean isEmpty() {
+        return toInsert.isEmpty() && toDelete.isEmpty() && toUpdate.isEmpty();
+    }
+}
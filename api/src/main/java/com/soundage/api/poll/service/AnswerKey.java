@@ -0,0 +1,36 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.entity.Answer;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Value identity of an answer row (everything except its id and response).
+ * Numeric values are normalised so that 4 and 4.0000 compare equal.
+ */
+public record AnswerKey(UUID questionId, UUID optionId, String textValue, BigDecimal numericValue,
+        Integer position) {
+
+    public static AnswerKey of(Answer a) {
+        return new AnswerKey(
+                a.getQuestion() != null ? a.getQuestion().getId() : null,
+                a.getOption() != null ? a.getOption().getId() : null,
+                a.getTextValue(),
+                a.getNumericValue() != null ? a.getNumericValue().stripTrailingZeros() : null,
+                a.getPosition());
+    }
+
+    /**
+     * The slot an answer occupies within its question: the same option, or the
+     * text/numeric value of the question. Two answers in the same slot differ
+     * only by value and can be updated in place.
+     */
+    SlotKey slot() {
+        String kind = textValue != null ? "text" : numericValue != null ? "numeric" : "option";
+        return new SlotKey(questionId, optionId, kind);
+    }
+
+    record SlotKey(UUID questionId, UUID optionId, String kind) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.soundage.api.poll.service;
+
+/** Formats of the raw response export. */
+public enum ExportFormat {
+    /** One header row, then one row per response with a column per question. */
+    csv("text/csv", "csv"),
+    /** One JSON object per line and response; answers keyed by question id. */
+    ndjson("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,11 @@
+package com.soundage.api.poll.service;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link PollService} inside the transaction that created,
+ * updated or deleted a poll; listeners that reload it use
+ * {@code @TransactionalEventListener}.
+ */
+public record PollChangedEvent(UUID pollId) {
+}
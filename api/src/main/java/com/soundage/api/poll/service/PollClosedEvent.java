@@ -0,0 +1,12 @@
+package com.soundage.api.poll.service;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link PollLifecycleScheduler} when a poll stops accepting
+ * votes: its end passed, or it was deactivated, or a closed poll was edited.
+ * {@link PollFinalizer} snapshots its results. Published outside any
+ * transaction: listen with {@code @EventListener}.
+ */
+public record PollClosedEvent(UUID pollId) {
+}
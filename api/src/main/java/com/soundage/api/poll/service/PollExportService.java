@@ -0,0 +1,225 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.common.exception.PollNotFoundException;
+import com.soundage.api.poll.cache.CompiledPoll;
+import com.soundage.api.poll.cache.PollModelCache;
+import com.soundage.api.poll.dto.OptionDto;
+import com.soundage.api.poll.dto.QuestionDto;
+import com.soundage.api.poll.repository.ExportedResponse;
+import com.soundage.api.poll.repository.ResultsQueryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Streams the raw responses of a poll as CSV or NDJSON, one row per response
+ * with the answers pivoted by question. Rows go from the database cursor
+ * ({@link ResultsQueryRepository#streamResponses}) straight to the output, so
+ * memory use does not depend on the number of responses.
+ */
+@Service
+public class PollExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** Flush every so many rows so the client sees the download progress. */
+    private static final int FLUSH_EVERY = 1000;
+
+    private final PollModelCache pollModelCache;
+    private final ResultsQueryRepository resultsQueryRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+    private final int fetchSize;
+
+    public PollExportService(PollModelCache pollModelCache, ResultsQueryRepository resultsQueryRepository,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+            @Value("${soundage.export.fetch-size:1000}") int fetchSize) {
+        this.pollModelCache = pollModelCache;
+        this.resultsQueryRepository = resultsQueryRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Checks that the poll exists; call before the response is committed so a
+     * missing poll is still a 404.
+     *
+     * @throws PollNotFoundException if the poll does not exist
+     */
+    public void checkExportable(UUID pollId) {
+        pollModelCache.get(pollId);
+    }
+
+    /** Writes the export of a poll to {@code out} (not closed). */
+    public void export(UUID pollId, ExportFormat format, OutputStream out) throws IOException {
+        CompiledPoll poll = pollModelCache.get(pollId);
+        Columns columns = new Columns(poll);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == ExportFormat.csv) {
+            writeCsvHeader(writer, columns);
+        }
+        int[] rows = { 0 };
+        try {
+            readOnlyTx.executeWithoutResult(status -> resultsQueryRepository.streamResponses(pollId, fetchSize,
+                    response -> {
+                        try {
+                            if (format == ExportFormat.csv) {
+                                writeCsvRow(writer, columns, response);
+                            } else {
+                                writeJsonLine(writer, columns, response);
+                            }
+                            if (++rows[0] % FLUSH_EVERY == 0)
+                                writer.flush();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+        } catch (UncheckedIOException e) {
+            // Typically the client went away; stop reading the cursor
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeCsvHeader(Writer writer, Columns columns) throws IOException {
+        List<String> header = new ArrayList<>(List.of("response_id", "submitted_at", "voter", "email"));
+        for (QuestionDto q : columns.questions) {
+            header.add(q.getTitle() != null ? q.getTitle() : q.getId().toString());
+        }
+        writeCsvLine(writer, header);
+    }
+
+    private void writeCsvRow(Writer writer, Columns columns, ExportedResponse response) throws IOException {
+        List<String> cells = new ArrayList<>(4 + columns.questions.size());
+        cells.add(response.responseId().toString());
+        cells.add(response.createdAt().toString());
+        cells.add(response.voter().getDisplayName());
+        cells.add(response.voter().getEmail());
+        List<List<String>> values = columns.pivot(response);
+        for (int i = 0; i < values.size(); i++) {
+            String separator = columns.ranking[i] ? " > " : "; ";
+            cells.add(values.get(i).isEmpty() ? null : String.join(separator, values.get(i)));
+        }
+        writeCsvLine(writer, cells);
+    }
+
+    private void writeJsonLine(Writer writer, Columns columns, ExportedResponse response) throws IOException {
+        Map<String, Object> answers = new LinkedHashMap<>();
+        List<List<String>> values = columns.pivot(response);
+        for (int i = 0; i < values.size(); i++) {
+            if (!values.get(i).isEmpty()) {
+                // Single-valued questions as a scalar, multiple choice and ranking as an array
+                boolean list = columns.ranking[i] || columns.questions.get(i).getAllowMultiple() == Boolean.TRUE
+                        || values.get(i).size() > 1;
+                answers.put(columns.questions.get(i).getId().toString(), list ? values.get(i) : values.get(i).get(0));
+            }
+        }
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("responseId", response.responseId());
+        line.put("submittedAt", response.createdAt().toString());
+        line.put("voter", response.voter());
+        line.put("answers", answers);
+        writer.write(objectMapper.writeValueAsString(line));
+        writer.write('\n');
+    }
+
+    private static void writeCsvLine(Writer writer, List<String> cells) throws IOException {
+        for (int i = 0; i < cells.size(); i++) {
+            if (i > 0)
+                writer.write(',');
+            writer.write(csvCell(cells.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * RFC 4180 quoting; text starting with a formula character is prefixed
+     * with a quote so spreadsheets do not evaluate voter input.
+     */
+    private static String csvCell(String value) {
+        if (value == null || value.isEmpty())
+            return "";
+        String cell = value;
+        char first = cell.charAt(0);
+        if ((first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r')
+                && !isNumber(cell)) {
+            cell = "'" + cell;
+        }
+        if (cell.indexOf(',') >= 0 || cell.indexOf('"') >= 0 || cell.indexOf('\n') >= 0 || cell.indexOf('\r') >= 0) {
+            return '"' + cell.replace("\"", "\"\"") + '"';
+        }
+        return cell;
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            new BigDecimal(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /** Question columns of a poll and the option labels used as cell values. */
+    private static final class Columns {
+        final List<QuestionDto> questions;
+        final boolean[] ranking;
+        final Map<UUID, Integer> indexByQuestion = new HashMap<>();
+        final Map<UUID, String> optionLabels = new HashMap<>();
+
+        Columns(CompiledPoll poll) {
+            this.questions = poll.getDetail().getQuestions() != null ? poll.getDetail().getQuestions() : List.of();
+            this.ranking = new boolean[questions.size()];
+            for (int i = 0; i < questions.size(); i++) {
+                QuestionDto q = questions.get(i);
+                indexByQuestion.put(q.getId(), i);
+                ranking[i] = "ranking".equals(q.getType());
+                for (OptionDto o : q.getOptions() != null ? q.getOptions() : List.<OptionDto>of()) {
+                    optionLabels.put(o.getId(), o.getTextContent() != null ? o.getTextContent() : o.getId().toString());
+                }
+            }
+        }
+
+        /**
+         * Answer values per question column: option labels (ranked ones already
+         * in position order, see the query), text and numeric values.
+         */
+        List<List<String>> pivot(ExportedResponse response) {
+            List<List<String>> values = new ArrayList<>(questions.size());
+            for (int i = 0; i < questions.size(); i++) {
+                values.add(new ArrayList<>(1));
+            }
+            for (ExportedResponse.Answer a : response.answers()) {
+                Integer index = indexByQuestion.get(a.questionId());
+                if (index == null)
+                    continue;
+                List<String> cell = values.get(index);
+                if (a.optionId() != null)
+                    cell.add(optionLabels.getOrDefault(a.optionId(), a.optionId().toString()));
+                if (a.textValue() != null && !a.textValue().isBlank())
+                    cell.add(a.textValue());
+                if (a.numericValue() != null)
+                    cell.add(a.numericValue().stripTrailingZeros().toPlainString());
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.common.response.CursorPage;
+import com.soundage.api.poll.cache.CompiledQuestion;
+import com.soundage.api.poll.cache.PollModelCache;
+import com.soundage.api.poll.dto.PollResultsDto;
+import com.soundage.api.poll.entity.Question;
+import com.soundage.api.poll.repository.ResponseCursor;
+import com.soundage.api.poll.repository.ResultsQueryRepository;
+import com.soundage.api.poll.repository.ResultsSnapshotRepository;
+import com.soundage.api.poll.repository.TallyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+
+/**
+ * Freezes the results of closed polls into snapshots
+ * ({@link ResultsSnapshotService}): on {@link PollClosedEvent}, once the votes
+ * that were in the write-behind queue at the close are written, and on a
+ * periodic scan for polls whose end passed more than
+ * soundage.results.snapshot.grace-seconds ago or whose snapshot went stale
+ * (e.g. a vote accepted just before the close was written after it).
+ * <p>
+ * Results, voters and text answers are read in one repeatable-read
+ * transaction, so every section matches the recorded vote version.
+ */
+@Component
+@Slf4j
+public class PollFinalizer implements DisposableBean {
+
+    private static final long QUEUE_POLL_INTERVAL_MS = 50;
+
+    private final PollService pollService;
+    private final PollModelCache pollModelCache;
+    private final ResultsSnapshotService snapshotService;
+    private final ResultsSnapshotRepository snapshotRepository;
+    private final ResultsQueryRepository resultsQueryRepository;
+    private final TallyRepository tallyRepository;
+    private final VoteIngestionQueue voteIngestionQueue;
+    private final TransactionTemplate snapshotTx;
+    private final Duration grace;
+    private final int batchSize;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PollFinalizer(PollService pollService, PollModelCache pollModelCache,
+            ResultsSnapshotService snapshotService, ResultsSnapshotRepository snapshotRepository,
+            ResultsQueryRepository resultsQueryRepository, TallyRepository tallyRepository,
+            VoteIngestionQueue voteIngestionQueue, PlatformTransactionManager transactionManager,
+            @Value("${soundage.results.snapshot.grace-seconds:30}") long graceSeconds,
+            @Value("${soundage.results.snapshot.batch-size:20}") int batchSize) {
+        this.pollService = pollService;
+        this.pollModelCache = pollModelCache;
+        this.snapshotService = snapshotService;
+        this.snapshotRepository = snapshotRepository;
+        this.resultsQueryRepository = resultsQueryRepository;
+        this.tallyRepository = tallyRepository;
+        this.voteIngestionQueue = voteIngestionQueue;
+        this.snapshotTx = new TransactionTemplate(transactionManager);
+        this.snapshotTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.grace = Duration.ofSeconds(graceSeconds);
+        this.batchSize = batchSize;
+    }
+
+    @EventListener
+    public void onPollClosed(PollClosedEvent event) {
+        long checkpoint = voteIngestionQueue.checkpoint();
+        executor.execute(() -> {
+            if (awaitVotesWritten(checkpoint))
+                finalizePoll(event.pollId());
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${soundage.results.snapshot.scan-interval-ms:60000}")
+    public void finalizeClosedPolls() {
+        List<UUID> pollIds = snapshotRepository.findPollsToFinalize(Instant.now().minus(grace), batchSize);
+        pollIds.forEach(this::finalizePoll);
+        if (!pollIds.isEmpty())
+            log.info("Snapshotted the results of {} closed polls", pollIds.size());
+    }
+
+    /** Replaces the snapshot of a poll by one of its current results. */
+    public void finalizePoll(UUID pollId) {
+        try {
+            snapshotTx.executeWithoutResult(status -> snapshot(pollId));
+        } catch (DataIntegrityViolationException e) {
+            // Snapshotted concurrently (event and scan), or the poll was deleted
+            log.debug("Skipped results snapshot of poll {}: {}", pollId, e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Could not snapshot the results of poll {}: {}", pollId, e.getMessage());
+        }
+    }
+
+    /**
+     * Waits up to the grace period for the ingestion queue to write what it
+     * held at the close; past that the scan takes over.
+     */
+    private boolean awaitVotesWritten(long checkpoint) {
+        Instant deadline = Instant.now().plus(grace);
+        try {
+            while (!voteIngestionQueue.isWrittenThrough(checkpoint)) {
+                if (Instant.now().isAfter(deadline))
+                    return false;
+                Thread.sleep(QUEUE_POLL_INTERVAL_MS);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void snapshot(UUID pollId) {
+        snapshotRepository.delete(pollId);
+        long voteVersion = tallyRepository.findVoteVersion(pollId);
+        PollResultsDto results = pollService.computeLiveResults(pollId);
+        snapshotService.writeResults(pollId, voteVersion, results);
+
+        writeSection(pollId, ResultsSnapshotService.VOTERS,
+                (after, limit) -> resultsQueryRepository.findVoters(pollId, after, limit));
+        for (CompiledQuestion question : pollModelCache.get(pollId).getQuestions()) {
+            if (question.type() == Question.QuestionType.text) {
+                writeSection(pollId, question.id().toString(),
+                        (after, limit) -> resultsQueryRepository.findTextEntries(question.id(), null, after, limit));
+            }
+        }
+    }
+
+    private void writeSection(UUID pollId, String section,
+            BiFunction<ResponseCursor, Integer, CursorPage<?>> pages) {
+        ResponseCursor after = null;
+        int chunkNo = 0;
+        do {
+            CursorPage<?> page = pages.apply(after, ResultsSnapshotService.CHUNK_SIZE);
+            if (!page.getItems().isEmpty())
+                snapshotService.writeChunk(pollId, section, chunkNo++, page.getItems());
+            after = ResponseCursor.decode(page.getNextCursor());
+        } while (after != null);
+    }
+}
@@ -0,0 +1,38 @@
+package com.soundage.api.poll.service;
+
+import java.time.Instant;
+
+/**
+ * Where a poll stands in its schedule. A poll is open from startsAt to endsAt,
+ * both inclusive; an inactive poll is closed by an admin whatever its
+ * schedule.
+ */
+public enum PollLifecycle {
+    inactive,
+    scheduled,
+    open,
+    closed;
+
+    public static PollLifecycle of(boolean active, Instant startsAt, Instant endsAt, Instant now) {
+        if (!active)
+            return inactive;
+        if (startsAt != null && startsAt.isAfter(now))
+            return scheduled;
+        if (endsAt != null && endsAt.isBefore(now))
+            return closed;
+        return open;
+    }
+
+    /**
+     * First instant at which a poll in this state moves on by itself, or null if
+     * it never does.
+     */
+    public Instant nextBoundary(Instant startsAt, Instant endsAt) {
+        return switch (this) {
+            case scheduled -> startsAt;
+            // endsAt is still open
+            case open -> endsAt != null ? endsAt.plusNanos(1) : null;
+            case inactive, closed -> null;
+        };
+    }
+}
@@ -0,0 +1,191 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.dto.PollDto;
+import com.soundage.api.poll.entity.Poll;
+import com.soundage.api.poll.repository.PollRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the open and scheduled polls in memory and moves them between
+ * {@link PollLifecycle} states exactly at their startsAt/endsAt, from a delay
+ * queue of upcoming boundaries drained by one thread. Each transition
+ * publishes {@link PollOpenedEvent} or {@link PollClosedEvent}, which refresh
+ * the open polls listing and snapshot results.
+ * <p>
+ * Polls edited on this node are reloaded on {@link PollChangedEvent}; the whole
+ * set is reloaded every soundage.polls.lifecycle.resync-ms to pick up edits
+ * made on other nodes, so until then a poll edited elsewhere opens or closes
+ * here on its old schedule. Only the events are late: votes are checked
+ * against the poll itself, the listing has its own TTL and the results scan
+ * catches missed closes.
+ */
+@Component
+@Slf4j
+public class PollLifecycleScheduler implements DisposableBean {
+
+    private final PollRepository pollRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTx;
+    private final DelayQueue<Boundary> boundaries = new DelayQueue<>();
+    /** Open and scheduled polls; guarded by {@code this}. */
+    private final Map<UUID, Tracked> polls = new HashMap<>();
+    private volatile Thread worker;
+
+    public PollLifecycleScheduler(PollRepository pollRepository, ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager) {
+        this.pollRepository = pollRepository;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        // Also runs after the commit of a poll edit
+        this.readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        resync();
+        worker = Thread.ofVirtual().name("poll-lifecycle").start(this::run);
+    }
+
+    /** Reloads every open and scheduled poll; polls that moved on meanwhile get their transition. */
+    @Scheduled(fixedDelayString = "${soundage.polls.lifecycle.resync-ms:60000}",
+            initialDelayString = "${soundage.polls.lifecycle.resync-ms:60000}")
+    public synchronized void resync() {
+        Instant now = Instant.now();
+        Map<UUID, PollDto> current = readOnlyTx.execute(status -> {
+            Map<UUID, PollDto> loaded = new HashMap<>();
+            pollRepository.findActiveNotEnded(now).forEach(p -> loaded.put(p.getId(), PollDto.fromEntity(p)));
+            // Tracked polls that ended or were deactivated elsewhere, unless deleted
+            List<UUID> gone = polls.keySet().stream().filter(id -> !loaded.containsKey(id)).toList();
+            pollRepository.findAllById(gone).forEach(p -> loaded.put(p.getId(), PollDto.fromEntity(p)));
+            return loaded;
+        });
+        for (UUID pollId : List.copyOf(polls.keySet())) {
+            if (!current.containsKey(pollId))
+                track(pollId, null, now);
+        }
+        current.forEach((pollId, poll) -> track(pollId, poll, now));
+    }
+
+    /** Reloads a created, edited or deleted poll once committed. */
+    @TransactionalEventListener
+    public void onPollChanged(PollChangedEvent event) {
+        UUID pollId = event.pollId();
+        Optional<PollDto> poll = readOnlyTx.execute(status -> pollRepository.findById(pollId).map(PollDto::fromEntity));
+        Instant now = Instant.now();
+        synchronized (this) {
+            boolean wasTracked = polls.containsKey(pollId);
+            PollLifecycle state = track(pollId, poll.orElse(null), now);
+            // The edit dropped the results snapshot of a closed poll; take it again
+            if (!wasTracked && (state == PollLifecycle.closed || state == PollLifecycle.inactive))
+                eventPublisher.publishEvent(new PollClosedEvent(pollId));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        Thread t = worker;
+        if (t != null)
+            t.interrupt();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Boundary boundary = boundaries.take();
+                synchronized (this) {
+                    Tracked tracked = polls.get(boundary.pollId);
+                    // Superseded by a later edit or resync
+                    if (tracked == null || tracked.boundary != boundary)
+                        continue;
+                    polls.put(boundary.pollId, new Tracked(tracked.poll, tracked.state, null));
+                    track(boundary.pollId, tracked.poll, Instant.now());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Poll lifecycle transition failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Records the current state of a poll (null when deleted), publishes the
+     * transition from its previous state if any, and queues its next boundary.
+     * Caller holds the lock.
+     */
+    private PollLifecycle track(UUID pollId, PollDto poll, Instant now) {
+        Tracked previous = polls.remove(pollId);
+        PollLifecycle before = previous != null ? previous.state : null;
+        PollLifecycle state = poll != null
+                ? PollLifecycle.of(Boolean.TRUE.equals(poll.getIsActive()), poll.getStartsAt(), poll.getEndsAt(), now)
+                : null;
+        Boundary boundary = null;
+        if (state == PollLifecycle.open || state == PollLifecycle.scheduled) {
+            Instant at = state.nextBoundary(poll.getStartsAt(), poll.getEndsAt());
+            if (at != null) {
+                boolean unchanged = previous != null && previous.boundary != null && previous.boundary.at.equals(at);
+                boundary = unchanged ? previous.boundary : new Boundary(pollId, at);
+            }
+            polls.put(pollId, new Tracked(poll, state, boundary));
+        }
+        // Keeps one queued boundary per poll however often it is resynced
+        if (previous != null && previous.boundary != null && previous.boundary != boundary)
+            boundaries.remove(previous.boundary);
+        if (boundary != null && (previous == null || previous.boundary != boundary))
+            boundaries.add(boundary);
+        if (state != before) {
+            if (state == PollLifecycle.open) {
+                eventPublisher.publishEvent(new PollOpenedEvent(pollId));
+            } else if (before != null && (state == PollLifecycle.closed || state == PollLifecycle.inactive)) {
+                eventPublisher.publishEvent(new PollClosedEvent(pollId));
+            }
+        }
+        return state;
+    }
+
+    private record Tracked(PollDto poll, PollLifecycle state, Boundary boundary) {
+    }
+
+    private static final class Boundary implements Delayed {
+
+        final UUID pollId;
+        final Instant at;
+
+        Boundary(UUID pollId, Instant at) {
+            this.pollId = pollId;
+            this.at = at;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), at));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return at.compareTo(((Boundary) other).at);
+        }
+    }
+}
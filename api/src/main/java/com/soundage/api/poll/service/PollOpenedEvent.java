@@ -0,0 +1,11 @@
+package com.soundage.api.poll.service;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link PollLifecycleScheduler} when a poll starts accepting
+ * votes (its start passed, or it was activated or rescheduled). Published
+ * outside any transaction: listen with {@code @EventListener}.
+ */
+public record PollOpenedEvent(UUID pollId) {
+}
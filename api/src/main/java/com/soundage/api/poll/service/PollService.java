@@ -1,21 +1,38 @@
 package com.soundage.api.poll.service;
 
 import com.soundage.api.common.exception.PollNotFoundException;
+import com.soundage.api.common.response.CursorPage;
+import com.soundage.api.poll.cache.CompiledPoll;
+import com.soundage.api.poll.cache.CompiledQuestion;
+import com.soundage.api.poll.cache.OptionBitmapCache;
+import com.soundage.api.poll.cache.OpenPollsCache;
+import com.soundage.api.poll.cache.OptionBitmapIndex;
+import com.soundage.api.poll.cache.PollModelCache;
+import com.soundage.api.poll.cache.RatingScale;
+import com.soundage.api.poll.cache.ResultsCache;
 import com.soundage.api.poll.dto.*;
-import com.soundage.api.poll.entity.Answer;
 import com.soundage.api.poll.entity.Option;
 import com.soundage.api.poll.entity.Poll;
 import com.soundage.api.poll.entity.Question;
-import com.soundage.api.poll.repository.AnswerRepository;
+import com.soundage.api.poll.repository.PollAggregates;
 import com.soundage.api.poll.repository.PollRepository;
+import com.soundage.api.poll.repository.ResponseCursor;
 import com.soundage.api.poll.repository.ResponseRepository;
+import com.soundage.api.poll.repository.ResultsQueryRepository;
+import com.soundage.api.poll.repository.ResultsSnapshotRepository;
+import com.soundage.api.poll.repository.TallyRepository;
+import com.soundage.api.poll.repository.VoteRollupRepository;
 import com.soundage.api.user.entity.User;
+import com.soundage.api.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.criteria.Predicate;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,18 +41,34 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PollService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_TIMELINE_BUCKETS = 10_000;
+
     private final PollRepository pollRepository;
     private final ResponseRepository responseRepository;
-    private final AnswerRepository answerRepository;
+    private final PollModelCache pollModelCache;
+    private final ResultsCache resultsCache;
+    private final ResultsAggregation resultsAggregation;
+    private final ResultsQueryRepository resultsQueryRepository;
+    private final VoteRollupRepository voteRollupRepository;
+    private final TallyRepository tallyRepository;
+    private final OptionBitmapCache optionBitmapCache;
+    private final ResultsSnapshotService resultsSnapshotService;
+    private final ResultsSnapshotRepository resultsSnapshotRepository;
+    private final OpenPollsCache openPollsCache;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @Transactional(readOnly = true)
-    public List<PollDto> findAllActive() {
-        Instant now = Instant.now();
-        return pollRepository.findByIsActiveTrue().stream()
-                .filter(p -> (p.getStartsAt() == null || !p.getStartsAt().isAfter(now))
-                        && (p.getEndsAt() == null || !p.getEndsAt().isBefore(now)))
-                .map(PollDto::fromEntity)
-                .collect(Collectors.toList());
+    /**
+     * One page of the polls accepting votes now, newest first, as serialized
+     * {@code ApiResponse<CursorPage<PollDto>>} JSON; see {@link OpenPollsCache}.
+     */
+    public byte[] findAllActive(String cursor, int limit) {
+        return openPollsCache.get(cursor, limit);
+    }
+
+    public int getDefaultActivePageSize() {
+        return openPollsCache.getFirstPageSize();
     }
 
     @Transactional(readOnly = true)
@@ -75,15 +108,14 @@ public class PollService {
 
     @Transactional(readOnly = true)
     public PollDetailDto findByIdWithQuestions(UUID id, Optional<User> currentUser, Optional<String> anonymousId) {
-        Poll poll = pollRepository.findById(id)
-                .orElseThrow(() -> new PollNotFoundException(id));
-        PollDetailDto dto = PollDetailDto.fromEntity(poll);
+        CompiledPoll poll = pollModelCache.get(id);
         boolean hasVoted = currentUser.map(u -> responseRepository.existsByPollIdAndUserId(id, u.getId()))
                 .orElse(anonymousId.filter(s -> s != null && !s.isBlank())
                         .map(s -> responseRepository.existsByPollIdAndAnonymousId(id, s))
                         .orElse(false));
-        dto.setHasVoted(hasVoted);
-        return dto;
+        return poll.getDetail().toBuilder()
+                .hasVoted(hasVoted)
+                .build();
     }
 
     @Transactional(readOnly = true)
@@ -93,6 +125,10 @@ public class PollService {
         return PollDetailDto.fromEntity(poll);
     }
 
+    /**
+     * {@code createdBy} may be a principal built from token claims rather than
+     * a loaded entity; only its id is used.
+     */
     @Transactional
     public PollDetailDto create(CreatePollRequest req, User createdBy) {
         Map<String, Object> settings = req.getSettings() != null ? new HashMap<>(req.getSettings()) : new HashMap<>();
@@ -104,7 +140,7 @@ public class PollService {
                 .isActive(req.getIsActive() != null ? req.getIsActive() : true)
                 .startsAt(req.getStartsAt())
                 .endsAt(req.getEndsAt())
-                .createdBy(createdBy)
+                .createdBy(userRepository.getReferenceById(createdBy.getId()))
                 .settings(settings)
                 .build();
 
@@ -117,6 +153,7 @@ public class PollService {
         }
 
         poll = pollRepository.save(poll);
+        eventPublisher.publishEvent(new PollChangedEvent(poll.getId()));
         return PollDetailDto.fromEntity(poll);
     }
 
@@ -155,6 +192,12 @@ public class PollService {
         }
 
         poll = pollRepository.save(poll);
+        pollModelCache.evictAfterCommit(id);
+        resultsCache.evictAfterCommit(id);
+        optionBitmapCache.evictAfterCommit(id);
+        // The snapshot may hold the old title; a closed poll gets a new one once committed
+        resultsSnapshotRepository.delete(id);
+        eventPublisher.publishEvent(new PollChangedEvent(id));
         return PollDetailDto.fromEntity(poll);
     }
 
@@ -164,99 +207,214 @@ public class PollService {
             throw new PollNotFoundException(id);
         }
         pollRepository.deleteById(id);
+        pollModelCache.evictAfterCommit(id);
+        resultsCache.evictAfterCommit(id);
+        optionBitmapCache.evictAfterCommit(id);
+        eventPublisher.publishEvent(new PollChangedEvent(id));
     }
 
-    @Transactional(readOnly = true)
+    /** Results of a poll, served from {@link ResultsCache}. */
     public PollResultsDto findResults(UUID pollId) {
-        Poll poll = pollRepository.findByIdWithQuestions(pollId)
-                .orElseThrow(() -> new PollNotFoundException(pollId));
-        List<Question> questions = poll.getQuestions() != null ? poll.getQuestions() : List.of();
-        // Force load options (and their imageUrl) for each question so results include
-        // images
-        for (Question q : questions) {
-            if (q.getOptions() != null) {
-                for (Option opt : q.getOptions()) {
-                    opt.getImageUrl();
-                }
+        return resultsCache.get(pollId, this::computeResults);
+    }
+
+    /**
+     * Results restricted to the responses that selected the given options:
+     * options of the same question are alternatives (OR), options of different
+     * questions must all hold (AND). Counts come from the per-option response
+     * bitmaps ({@link OptionBitmapCache}) and are not cached; only choice
+     * questions are segmented.
+     */
+    public PollResultsDto findResults(UUID pollId, List<UUID> filterOptionIds) {
+        if (filterOptionIds == null || filterOptionIds.isEmpty()) {
+            return findResults(pollId);
+        }
+        CompiledPoll poll = pollModelCache.get(pollId);
+        Map<UUID, Set<UUID>> groups = new LinkedHashMap<>();
+        for (UUID optionId : filterOptionIds) {
+            CompiledQuestion question = poll.getQuestions().stream()
+                    .filter(q -> q.hasOption(optionId))
+                    .findFirst()
+                    .orElse(null);
+            if (question == null || question.type() == Question.QuestionType.ranking) {
+                throw new IllegalArgumentException("Option " + optionId + " is not a selectable option of poll "
+                        + pollId);
             }
+            groups.computeIfAbsent(question.id(), k -> new LinkedHashSet<>()).add(optionId);
         }
 
-        List<com.soundage.api.poll.entity.Response> responses = responseRepository.findByPollId(pollId);
-        long totalResponses = responses.size();
+        OptionBitmapIndex index = optionBitmapCache.get(pollId);
+        Roaring64NavigableMap segment = index.segment(groups.values());
+        long totalResponses = segment.getLongCardinality();
 
-        List<Answer> answers = new ArrayList<>();
-        for (com.soundage.api.poll.entity.Response r : responses) {
-            answers.addAll(answerRepository.findByResponseId(r.getId()));
+        List<QuestionResultDto> questionResults = new ArrayList<>();
+        for (QuestionDto q : poll.getDetail().getQuestions()) {
+            if (!isChoice(Question.QuestionType.valueOf(q.getType())))
+                continue;
+            List<OptionDto> options = q.getOptions() != null ? q.getOptions() : List.of();
+            List<OptionCountDto> optionCounts = new ArrayList<>();
+            for (OptionDto opt : options) {
+                long count = index.count(opt.getId(), segment);
+                double pct = totalResponses > 0 ? 100.0 * count / totalResponses : 0;
+                optionCounts.add(OptionCountDto.builder()
+                        .optionId(opt.getId())
+                        .optionLabel(opt.getTextContent() != null ? opt.getTextContent() : opt.getId().toString())
+                        .imageUrl(opt.getImageUrl())
+                        .count(count)
+                        .percentage(Math.round(pct * 10) / 10.0)
+                        .build());
+            }
+            optionCounts.sort((x, y) -> Long.compare(y.getCount(), x.getCount()));
+            questionResults.add(QuestionResultDto.builder()
+                    .questionId(q.getId())
+                    .questionTitle(q.getTitle())
+                    .type(q.getType())
+                    .responseCount(index.countAny(options.stream().map(OptionDto::getId).toList(), segment))
+                    .optionCounts(optionCounts)
+                    .build());
         }
 
-        Map<UUID, List<Answer>> answersByQuestion = answers.stream()
-                .collect(Collectors.groupingBy(a -> a.getQuestion().getId()));
+        return PollResultsDto.builder()
+                .pollId(pollId)
+                .pollTitle(poll.getDetail().getTitle())
+                .totalResponses(totalResponses)
+                .filterOptionIds(List.copyOf(filterOptionIds))
+                .questionResults(questionResults)
+                .build();
+    }
+
+    /**
+     * Runs in the read-only transaction opened by the cache. Closed polls are
+     * served from their snapshot while it is current.
+     */
+    private PollResultsDto computeResults(UUID pollId) {
+        return resultsSnapshotService.findResults(pollId)
+                .orElseGet(() -> computeLiveResults(pollId));
+    }
+
+    /** Results computed from the aggregates; used by {@link PollFinalizer} for snapshots. */
+    PollResultsDto computeLiveResults(UUID pollId) {
+        Poll poll = pollRepository.findByIdWithQuestions(pollId)
+                .orElseThrow(() -> new PollNotFoundException(pollId));
+        List<Question> questions = poll.getQuestions() != null ? poll.getQuestions() : List.of();
+
+        // Aggregates and counts only; voters and text answers are paged
+        // separately (findVoters, findTextResponses)
+        PollAggregates aggregates = resultsAggregation.load(pollId);
+        long totalResponses = aggregates.getTotalResponses();
 
         List<QuestionResultDto> questionResults = new ArrayList<>();
         for (Question q : questions) {
-            List<Answer> qAnswers = answersByQuestion.getOrDefault(q.getId(), List.of());
-            QuestionResultDto dto = buildQuestionResult(q, qAnswers, totalResponses);
+            QuestionResultDto dto = buildQuestionResult(q, aggregates, totalResponses);
             questionResults.add(dto);
         }
 
-        List<VoterInfoDto> voters = responses.stream()
-                .map(this::toVoterInfo)
-                .collect(Collectors.toList());
-
         return PollResultsDto.builder()
                 .pollId(poll.getId())
                 .pollTitle(poll.getTitle())
                 .totalResponses(totalResponses)
                 .questionResults(questionResults)
-                .voters(voters)
                 .build();
     }
 
-    private VoterInfoDto toVoterInfo(com.soundage.api.poll.entity.Response r) {
-        if (r.getUser() != null) {
-            String name = (r.getUser().getName() != null ? r.getUser().getName() : "")
-                    + (r.getUser().getLastName() != null ? " " + r.getUser().getLastName() : "").trim();
-            if (name.isBlank())
-                name = r.getUser().getEmail();
-            return VoterInfoDto.builder()
-                    .displayName(name)
-                    .email(r.getUser().getEmail())
-                    .anonymous(false)
-                    .build();
+    /**
+     * One page of the voters of a poll, oldest first; from the results
+     * snapshot once the poll is closed.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<VoterInfoDto> findVoters(UUID pollId, String cursor, int limit) {
+        pollModelCache.get(pollId);
+        CursorPage<VoterInfoDto> frozen = resultsSnapshotService.findVoters(pollId, cursor, clampPageSize(limit));
+        if (frozen != null)
+            return frozen;
+        return resultsQueryRepository.findVoters(pollId, ResponseCursor.decode(cursor), clampPageSize(limit));
+    }
+
+    /**
+     * One page of the answers to a text question, in response order; with a
+     * non-blank {@code query} only the answers matching it (full-text search).
+     * Unfiltered pages of a closed poll come from its results snapshot.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TextResponseEntryDto> findTextResponses(UUID pollId, UUID questionId, String query,
+            String cursor, int limit) {
+        requireTextQuestion(pollId, questionId);
+        boolean search = query != null && !query.isBlank();
+        if (!search) {
+            CursorPage<TextResponseEntryDto> frozen = resultsSnapshotService.findTextEntries(pollId, questionId,
+                    cursor, clampPageSize(limit));
+            if (frozen != null)
+                return frozen;
         }
-        return VoterInfoDto.builder()
-                .displayName("Anonymous")
-                .email(null)
-                .anonymous(true)
-                .build();
+        return resultsQueryRepository.findTextEntries(questionId, search ? query : null,
+                ResponseCursor.decode(cursor), clampPageSize(limit));
+    }
+
+    /** Most frequent words in the answers to a text question (common words are not tallied, see TextTerms). */
+    @Transactional(readOnly = true)
+    public List<TextTermDto> findTopTerms(UUID pollId, UUID questionId, int limit) {
+        requireTextQuestion(pollId, questionId);
+        return tallyRepository.findTopTerms(questionId, clampPageSize(limit));
+    }
+
+    private void requireTextQuestion(UUID pollId, UUID questionId) {
+        CompiledQuestion question = pollModelCache.get(pollId).getQuestion(questionId);
+        if (question == null || question.type() != Question.QuestionType.text) {
+            throw new IllegalArgumentException("Question " + questionId + " is not a text question of poll " + pollId);
+        }
+    }
+
+    /**
+     * Vote timeline of a poll: one bucket per granularity step in [from, to),
+     * including empty ones. Defaults to the last 60 buckets.
+     */
+    @Transactional(readOnly = true)
+    public List<TimelineBucketDto> findTimeline(UUID pollId, RollupGranularity granularity, Instant from, Instant to) {
+        pollModelCache.get(pollId);
+        Instant end = to != null ? to : Instant.now();
+        Instant start = granularity.bucketStart(from != null ? from : end.minus(granularity.width().multipliedBy(60)));
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Timeline range is empty: from must be before to.");
+        }
+        long buckets = Duration.between(start, end).dividedBy(granularity.width()) + 1;
+        if (buckets > MAX_TIMELINE_BUCKETS) {
+            throw new IllegalArgumentException("Timeline range too large: at most " + MAX_TIMELINE_BUCKETS
+                    + " " + granularity + " buckets per request.");
+        }
+        Map<Instant, TimelineBucketDto> stored = new HashMap<>();
+        for (TimelineBucketDto b : voteRollupRepository.findBuckets(pollId, granularity, start, end)) {
+            stored.put(b.getBucketStart(), b);
+        }
+        List<TimelineBucketDto> series = new ArrayList<>((int) buckets);
+        for (Instant t = start; t.isBefore(end); t = t.plus(granularity.width())) {
+            TimelineBucketDto b = stored.get(t);
+            series.add(b != null ? b : TimelineBucketDto.builder().bucketStart(t).build());
+        }
+        return series;
+    }
+
+    private static int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static boolean isChoice(Question.QuestionType type) {
+        return type == Question.QuestionType.single_choice || type == Question.QuestionType.yes_no
+                || type == Question.QuestionType.multiple_choice || type == Question.QuestionType.image_choice;
     }
 
-    private QuestionResultDto buildQuestionResult(Question q, List<Answer> qAnswers, long totalResponses) {
+    private QuestionResultDto buildQuestionResult(Question q, PollAggregates aggregates, long totalResponses) {
         String type = q.getType().name();
         QuestionResultDto.QuestionResultDtoBuilder b = QuestionResultDto.builder()
                 .questionId(q.getId())
                 .questionTitle(q.getTitle())
-                .type(type);
+                .type(type)
+                .responseCount(aggregates.getQuestion(q.getId()).getResponseCount());
 
-        if (q.getType() == Question.QuestionType.single_choice || q.getType() == Question.QuestionType.yes_no
-                || q.getType() == Question.QuestionType.multiple_choice
-                || q.getType() == Question.QuestionType.image_choice) {
-            Map<UUID, Long> countByOption = new HashMap<>();
+        if (isChoice(q.getType())) {
             List<Option> options = q.getOptions() != null ? q.getOptions() : List.of();
-            for (Option opt : options) {
-                countByOption.put(opt.getId(), 0L);
-            }
-            for (Answer a : qAnswers) {
-                if (a.getOption() != null) {
-                    countByOption.merge(a.getOption().getId(), 1L, Long::sum);
-                }
-            }
-            long totalSelections = qAnswers.size();
-            if (totalSelections == 0)
-                totalSelections = 1;
             List<OptionCountDto> optionCounts = new ArrayList<>();
             for (Option opt : options) {
-                long count = countByOption.getOrDefault(opt.getId(), 0L);
+                long count = aggregates.getOptionCount(opt.getId());
                 double pct = totalResponses > 0 ? 100.0 * count / totalResponses : 0;
                 optionCounts.add(OptionCountDto.builder()
                         .optionId(opt.getId())
@@ -269,64 +427,41 @@ public class PollService {
             optionCounts.sort((x, y) -> Long.compare(y.getCount(), x.getCount()));
             b.optionCounts(optionCounts);
         } else if (q.getType() == Question.QuestionType.rating) {
-            long[] buckets = new long[6];
-            double sum = 0;
-            int n = 0;
-            for (Answer a : qAnswers) {
-                if (a.getNumericValue() != null) {
-                    int v = a.getNumericValue().intValue();
-                    if (v >= 1 && v <= 5) {
-                        buckets[v]++;
-                        sum += v;
-                        n++;
-                    }
-                }
-            }
-            List<RatingBucketDto> ratingDistribution = new ArrayList<>();
-            long total = Arrays.stream(buckets).sum();
-            if (total == 0)
-                total = 1;
-            for (int v = 1; v <= 5; v++) {
-                double pct = 100.0 * buckets[v] / total;
-                ratingDistribution.add(RatingBucketDto.builder()
-                        .value(v)
-                        .count(buckets[v])
-                        .percentage(Math.round(pct * 10) / 10.0)
-                        .build());
-            }
-            b.ratingDistribution(ratingDistribution);
-            b.averageRating(n > 0 ? Math.round(sum / n * 10) / 10.0 : null);
-        } else if (q.getType() == Question.QuestionType.text) {
-            List<String> texts = qAnswers.stream()
-                    .map(Answer::getTextValue)
-                    .filter(Objects::nonNull)
-                    .filter(s -> !s.isBlank())
-                    .collect(Collectors.toList());
-            b.textResponses(texts);
-            List<TextResponseEntryDto> entries = new ArrayList<>();
-            for (Answer a : qAnswers) {
-                if (a.getTextValue() == null || a.getTextValue().isBlank())
-                    continue;
-                com.soundage.api.poll.entity.Response resp = a.getResponse();
-                String displayName = "Anonymous";
-                String email = null;
-                boolean anonymous = true;
-                if (resp != null && resp.getUser() != null) {
-                    displayName = (resp.getUser().getName() != null ? resp.getUser().getName() : "")
-                            + (resp.getUser().getLastName() != null ? " " + resp.getUser().getLastName() : "").trim();
-                    if (displayName.isBlank())
-                        displayName = resp.getUser().getEmail();
-                    email = resp.getUser().getEmail();
-                    anonymous = false;
-                }
-                entries.add(TextResponseEntryDto.builder()
-                        .displayName(displayName)
-                        .email(email)
-                        .anonymous(anonymous)
-                        .text(a.getTextValue())
+            RatingScale scale = RatingScale.fromSettings(q.getSettings());
+            RatingStatistics stats = RatingStatistics.fromTallies(scale, aggregates.getQuestion(q.getId()));
+            boolean rated = stats.getCount() > 0;
+            b.ratingDistribution(stats.distribution());
+            b.averageRating(stats.averageRating());
+            b.ratingMin(scale.min());
+            b.ratingMax(scale.max());
+            b.ratingStep(scale.step());
+            b.ratingCount(stats.getCount());
+            b.ratingStdDev(rated ? Math.round(stats.getStdDev() * 100) / 100.0 : null);
+            b.ratingMedian(rated ? stats.quantile(0.5) : null);
+            b.ratingP90(rated ? stats.quantile(0.9) : null);
+        } else if (q.getType() == Question.QuestionType.ranking) {
+            List<Option> options = q.getOptions() != null ? q.getOptions() : List.of();
+            List<UUID> optionIds = options.stream().map(Option::getId).toList();
+            RankingAggregator ranking = RankingAggregator.fromTallies(optionIds, aggregates.getQuestion(q.getId()));
+            List<RankingOptionResultDto> rankingResults = new ArrayList<>();
+            for (int i = 0; i < options.size(); i++) {
+                Option opt = options.get(i);
+                long ranked = ranking.rankedCount(i);
+                rankingResults.add(RankingOptionResultDto.builder()
+                        .optionId(opt.getId())
+                        .optionLabel(opt.getTextContent() != null ? opt.getTextContent() : opt.getId().toString())
+                        .imageUrl(opt.getImageUrl())
+                        .bordaScore(ranking.bordaScore(i))
+                        .rankedCount(ranked)
+                        .firstPlaceCount(ranked > 0 ? ranking.positionCount(i, 1) : 0)
+                        .meanPosition(ranked > 0 ? Math.round(ranking.meanPosition(i) * 100) / 100.0 : null)
+                        .medianPosition(ranked > 0 ? ranking.medianPosition(i) : null)
                         .build());
             }
-            b.textResponseEntries(entries);
+            rankingResults.sort((x, y) -> Long.compare(y.getBordaScore(), x.getBordaScore()));
+            b.rankingResults(rankingResults);
+            b.pairwiseOptionIds(optionIds);
+            b.pairwiseMatrix(ranking.pairwiseMatrix());
         }
 
         return b.build();
@@ -0,0 +1,141 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.repository.PollAggregates;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Aggregates rankings of one question over options identified by ordinal
+ * (0..optionCount-1), loaded from tallied counts. All state is in flat
+ * primitive arrays, so the footprint depends only on the number of options.
+ *
+ * <p>A ranking lists option ordinals best first and may be partial. Borda
+ * gives {@code optionCount - position} points per ranking (unranked options get
+ * none); the pairwise matrix only counts pairs that the voter ranked both of.
+ */
+public final class RankingAggregator {
+
+    private final int optionCount;
+    /** [option * optionCount + (position - 1)]: rankings that put option at position */
+    private final long[] positionCounts;
+    /** [winner * optionCount + loser]: rankings that put winner above loser */
+    private final long[] pairwise;
+
+    public RankingAggregator(int optionCount) {
+        this.optionCount = optionCount;
+        this.positionCounts = new long[optionCount * optionCount];
+        this.pairwise = new long[optionCount * optionCount];
+    }
+
+    /**
+     * Ranking aggregate of a question's tallied rankings over the given
+     * options; ordinal i is {@code optionIds.get(i)}. Counts for other options
+     * are ignored.
+     */
+    public static RankingAggregator fromTallies(List<UUID> optionIds, PollAggregates.QuestionAggregate question) {
+        Map<UUID, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < optionIds.size(); i++)
+            ordinals.put(optionIds.get(i), i);
+        RankingAggregator aggregator = new RankingAggregator(optionIds.size());
+        for (PollAggregates.RankingPosition p : question.getRankingPositions()) {
+            Integer option = ordinals.get(p.optionId());
+            if (option != null)
+                aggregator.addPosition(option, p.position(), p.count());
+        }
+        for (PollAggregates.RankingPair p : question.getRankingPairs()) {
+            Integer winner = ordinals.get(p.winnerOptionId());
+            Integer loser = ordinals.get(p.loserOptionId());
+            if (winner != null && loser != null)
+                aggregator.addPair(winner, loser, p.count());
+        }
+        return aggregator;
+    }
+
+    public int getOptionCount() {
+        return optionCount;
+    }
+
+    /** Adds tallied counts: {@code count} rankings put {@code option} at {@code position} (1-based). */
+    public void addPosition(int option, int position, long count) {
+        if (position >= 1 && position <= optionCount)
+            positionCounts[option * optionCount + position - 1] += count;
+    }
+
+    /** Adds tallied counts: {@code count} rankings put {@code winner} above {@code loser}. */
+    public void addPair(int winner, int loser, long count) {
+        pairwise[winner * optionCount + loser] += count;
+    }
+
+    /** Rankings that include the option. */
+    public long rankedCount(int option) {
+        long total = 0;
+        int base = option * optionCount;
+        for (int p = 0; p < optionCount; p++)
+            total += positionCounts[base + p];
+        return total;
+    }
+
+    public long positionCount(int option, int position) {
+        return positionCounts[option * optionCount + position - 1];
+    }
+
+    public long bordaScore(int option) {
+        long score = 0;
+        int base = option * optionCount;
+        for (int p = 0; p < optionCount; p++)
+            score += positionCounts[base + p] * (optionCount - 1 - p);
+        return score;
+    }
+
+    /** Mean 1-based position among the rankings that include the option, or NaN. */
+    public double meanPosition(int option) {
+        long sum = 0;
+        long n = 0;
+        int base = option * optionCount;
+        for (int p = 0; p < optionCount; p++) {
+            sum += positionCounts[base + p] * (p + 1);
+            n += positionCounts[base + p];
+        }
+        return n > 0 ? (double) sum / n : Double.NaN;
+    }
+
+    /** Median 1-based position among the rankings that include the option, or NaN. */
+    public double medianPosition(int option) {
+        long n = rankedCount(option);
+        if (n <= 0)
+            return Double.NaN;
+        int lower = positionAtRank(option, (n - 1) / 2);
+        int upper = positionAtRank(option, n / 2);
+        return (lower + upper) / 2.0;
+    }
+
+    /** 1-based position of the k-th (0-based) ranking of the option when sorted by position. */
+    private int positionAtRank(int option, long k) {
+        int base = option * optionCount;
+        long seen = 0;
+        for (int p = 0; p < optionCount; p++) {
+            seen += positionCounts[base + p];
+            if (seen > k)
+                return p + 1;
+        }
+        return optionCount;
+    }
+
+    /** Rankings that put {@code winner} above {@code loser}. */
+    public long preferred(int winner, int loser) {
+        return pairwise[winner * optionCount + loser];
+    }
+
+    /** Pairwise matrix as rows: [i][j] = rankings that put option i above option j. */
+    public long[][] pairwiseMatrix() {
+        long[][] matrix = new long[optionCount][];
+        for (int i = 0; i < optionCount; i++) {
+            matrix[i] = new long[optionCount];
+            System.arraycopy(pairwise, i * optionCount, matrix[i], 0, optionCount);
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,141 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.cache.RatingScale;
+import com.soundage.api.poll.dto.RatingBucketDto;
+import com.soundage.api.poll.repository.PollAggregates;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistics of the ratings of one question on its scale, built from the
+ * tallies: count, mean and sum of squared deviations (for the variance), plus
+ * a histogram with one bin per scale value that serves as an exact quantile
+ * sketch. Size depends only on the scale, never on the number of votes.
+ */
+public final class RatingStatistics {
+
+    /** Larger scales are binned more coarsely, making quantiles approximate. */
+    private static final int MAX_BINS = 10_000;
+
+    private final RatingScale scale;
+    private final long[] bins;
+    private long count;
+    private double mean;
+    private double m2;
+
+    public RatingStatistics(RatingScale scale) {
+        this.scale = scale.size() <= MAX_BINS ? scale
+                : new RatingScale(scale.min(), scale.max(), (scale.max() - scale.min()) / (MAX_BINS - 1));
+        this.bins = new long[this.scale.size()];
+    }
+
+    /** Statistics of a question's tallied ratings on its scale. */
+    public static RatingStatistics fromTallies(RatingScale scale, PollAggregates.QuestionAggregate question) {
+        return fromTallies(scale, question.getRatingCount(), question.getRatingSum(), question.getRatingSumSquares(),
+                question.getRatingCounts());
+    }
+
+    /**
+     * Builds statistics from tallied power sums and per-value counts. The
+     * conversion to mean/M2 is done in decimal arithmetic, so no precision is
+     * lost to cancellation.
+     */
+    public static RatingStatistics fromTallies(RatingScale scale, long count, BigDecimal sum, BigDecimal sumSquares,
+            Map<BigDecimal, Long> valueCounts) {
+        RatingStatistics stats = new RatingStatistics(scale);
+        // stats.scale, which is coarser than scale when scale has too many values
+        for (Map.Entry<BigDecimal, Long> e : valueCounts.entrySet()) {
+            stats.bins[stats.scale.indexOf(e.getKey().doubleValue())] += e.getValue();
+        }
+        if (count > 0) {
+            BigDecimal n = BigDecimal.valueOf(count);
+            stats.count = count;
+            stats.mean = sum.divide(n, MathContext.DECIMAL64).doubleValue();
+            stats.m2 = Math.max(0, sumSquares.subtract(sum.multiply(sum).divide(n, MathContext.DECIMAL64)).doubleValue());
+        }
+        return stats;
+    }
+
+    public RatingScale getScale() {
+        return scale;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /** Mean rounded to one decimal, or null if there are no ratings. */
+    public Double averageRating() {
+        return count > 0 ? Math.round(mean * 10) / 10.0 : null;
+    }
+
+    /** Sample variance, or 0 with fewer than two ratings. */
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : 0;
+    }
+
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Quantile {@code q} (0..1) of the rated values, interpolating between the
+     * two nearest ratings; NaN if there are none.
+     */
+    public double quantile(double q) {
+        long n = 0;
+        for (long c : bins)
+            n += c;
+        if (n <= 0)
+            return Double.NaN;
+        double h = q * (n - 1);
+        long lower = (long) Math.floor(h);
+        double lowerValue = valueAtRank(lower);
+        double upperValue = valueAtRank((long) Math.ceil(h));
+        return lowerValue + (h - lower) * (upperValue - lowerValue);
+    }
+
+    /** Scale value of the k-th (0-based) rating in ascending order. */
+    private double valueAtRank(long k) {
+        long seen = 0;
+        for (int i = 0; i < bins.length; i++) {
+            seen += bins[i];
+            if (seen > k)
+                return scale.valueAt(i);
+        }
+        return scale.max();
+    }
+
+    /** True if both hold the same ratings (same count, mean and histogram). */
+    public boolean sameRatings(RatingStatistics other) {
+        return count == other.count && Double.compare(mean, other.mean) == 0 && Arrays.equals(bins, other.bins);
+    }
+
+    /** Share of each scale value, as shown on the results page. */
+    public List<RatingBucketDto> distribution() {
+        long total = 0;
+        for (long c : bins)
+            total += Math.max(0, c);
+        if (total == 0)
+            total = 1;
+        List<RatingBucketDto> distribution = new ArrayList<>(bins.length);
+        for (int i = 0; i < bins.length; i++) {
+            double pct = 100.0 * bins[i] / total;
+            distribution.add(RatingBucketDto.builder()
+                    .value(scale.valueAt(i))
+                    .count(bins[i])
+                    .percentage(Math.round(pct * 10) / 10.0)
+                    .build());
+        }
+        return distribution;
+    }
+}
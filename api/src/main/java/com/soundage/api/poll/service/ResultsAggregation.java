@@ -0,0 +1,33 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.repository.PollAggregates;
+import com.soundage.api.poll.repository.ResultsQueryRepository;
+import com.soundage.api.poll.repository.TallyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Source of the aggregates shown on the results page: the incrementally
+ * maintained tallies ({@code tally}, default) or GROUP BY queries over the
+ * answers ({@code sql}). Both take a constant number of queries per poll.
+ */
+@Component
+public class ResultsAggregation {
+
+    private final TallyRepository tallyRepository;
+    private final ResultsQueryRepository resultsQueryRepository;
+    private final boolean sql;
+
+    public ResultsAggregation(TallyRepository tallyRepository, ResultsQueryRepository resultsQueryRepository,
+            @Value("${soundage.results.aggregation:tally}") String mode) {
+        this.tallyRepository = tallyRepository;
+        this.resultsQueryRepository = resultsQueryRepository;
+        this.sql = "sql".equalsIgnoreCase(mode);
+    }
+
+    public PollAggregates load(UUID pollId) {
+        return sql ? resultsQueryRepository.aggregate(pollId) : tallyRepository.load(pollId);
+    }
+}
@@ -0,0 +1,108 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.common.response.CursorPage;
+import com.soundage.api.poll.dto.PollResultsDto;
+import com.soundage.api.poll.dto.TextResponseEntryDto;
+import com.soundage.api.poll.dto.VoterInfoDto;
+import com.soundage.api.poll.repository.ResultsSnapshotRepository;
+import com.soundage.api.poll.repository.SnapshotCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes the frozen results of closed polls: the
+ * {@link PollResultsDto} and the voter and text-answer sections, stored as
+ * gzipped JSON, the sections in chunks of {@value #CHUNK_SIZE} items so a page
+ * only decompresses the chunks it covers. Snapshots are written by
+ * {@link PollFinalizer}; reads return nothing once a snapshot is no longer
+ * current.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResultsSnapshotService {
+
+    static final int CHUNK_SIZE = 500;
+    static final String VOTERS = "voters";
+
+    private final ResultsSnapshotRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public Optional<PollResultsDto> findResults(UUID pollId) {
+        byte[] results = repository.findCurrentResults(pollId);
+        return results != null ? Optional.of(decompress(results, objectMapper.constructType(PollResultsDto.class)))
+                : Optional.empty();
+    }
+
+    /**
+     * One page of the voters of a closed poll, or null if the poll has no
+     * current snapshot or {@code cursor} is not a snapshot cursor.
+     */
+    public CursorPage<VoterInfoDto> findVoters(UUID pollId, String cursor, int limit) {
+        return findPage(pollId, VOTERS, VoterInfoDto.class, cursor, limit);
+    }
+
+    /** Like {@link #findVoters}, for the answers to a text question. */
+    public CursorPage<TextResponseEntryDto> findTextEntries(UUID pollId, UUID questionId, String cursor, int limit) {
+        return findPage(pollId, questionId.toString(), TextResponseEntryDto.class, cursor, limit);
+    }
+
+    void writeResults(UUID pollId, long voteVersion, PollResultsDto results) {
+        repository.insert(pollId, voteVersion, compress(results));
+    }
+
+    void writeChunk(UUID pollId, String section, int chunkNo, List<?> items) {
+        repository.insertChunk(pollId, section, chunkNo, items.size(), compress(items));
+    }
+
+    private <T> CursorPage<T> findPage(UUID pollId, String section, Class<T> type, String cursor, int limit) {
+        SnapshotCursor position = SnapshotCursor.tryDecode(cursor);
+        if (position == null || !repository.isCurrent(pollId))
+            return null;
+        int offset = position.offset();
+        // One item past the page tells whether there is a next one
+        int fromChunk = offset / CHUNK_SIZE;
+        int toChunk = (offset + limit) / CHUNK_SIZE;
+        JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, type);
+        List<T> items = new ArrayList<>();
+        for (byte[] chunk : repository.findChunks(pollId, section, fromChunk, toChunk)) {
+            items.addAll(decompress(chunk, listType));
+        }
+        int start = Math.min(offset - fromChunk * CHUNK_SIZE, items.size());
+        int end = Math.min(start + limit, items.size());
+        String nextCursor = items.size() > end ? new SnapshotCursor(offset + limit).encode() : null;
+        return CursorPage.of(new ArrayList<>(items.subList(start, end)), nextCursor);
+    }
+
+    private byte[] compress(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private <T> T decompress(byte[] compressed, JavaType type) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return objectMapper.readValue(in, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
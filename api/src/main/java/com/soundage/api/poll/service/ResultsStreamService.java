@@ -0,0 +1,183 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.common.exception.PollNotFoundException;
+import com.soundage.api.poll.cache.CompiledPoll;
+import com.soundage.api.poll.cache.PollModelCache;
+import com.soundage.api.poll.dto.ResultsDeltaDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Live results over Server-Sent Events. Committed votes only mark their poll
+ * dirty; a scheduled flush reloads the aggregates of dirty polls that have
+ * subscribers and sends the changes as one frame per interval. Each subscriber
+ * has a bounded buffer drained on its own virtual thread, so a slow client is
+ * dropped instead of delaying other subscribers or the vote path.
+ */
+@Slf4j
+@Service
+public class ResultsStreamService implements DisposableBean {
+
+    private final PollModelCache pollModelCache;
+    private final ResultsAggregation resultsAggregation;
+    private final long timeoutMs;
+    private final int bufferSize;
+
+    private final Map<UUID, Channel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ResultsStreamService(PollModelCache pollModelCache, ResultsAggregation resultsAggregation,
+            @Value("${soundage.results.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${soundage.results.stream.buffer-size:16}") int bufferSize) {
+        this.pollModelCache = pollModelCache;
+        this.resultsAggregation = resultsAggregation;
+        this.timeoutMs = timeoutMs;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Registers a subscriber; it receives a snapshot on the next flush and deltas
+     * afterwards.
+     *
+     * @throws PollNotFoundException if the poll does not exist
+     */
+    public SseEmitter subscribe(UUID pollId) {
+        pollModelCache.get(pollId);
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        // Added under the map lock so a concurrent flush cannot drop the channel;
+        // newcomers first so a delta is never sent ahead of the snapshot
+        Channel channel = channels.compute(pollId, (id, existing) -> {
+            Channel c = existing != null ? existing : new Channel();
+            c.newcomers.add(subscriber);
+            c.subscribers.add(subscriber);
+            return c;
+        });
+        Runnable remove = () -> {
+            subscriber.closed = true;
+            channel.subscribers.remove(subscriber);
+        };
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onVotesWritten(VotesWrittenEvent event) {
+        for (UUID pollId : event.pollIds()) {
+            Channel channel = channels.get(pollId);
+            if (channel != null)
+                channel.dirty = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${soundage.results.stream.interval-ms:1000}")
+    public void flush() {
+        channels.forEach((pollId, channel) -> {
+            if (channels.computeIfPresent(pollId, (id, c) -> c.subscribers.isEmpty() ? null : c) == null)
+                return;
+            boolean dirty = channel.dirty;
+            if (!dirty && channel.newcomers.isEmpty() && channel.last != null)
+                return;
+            channel.dirty = false;
+            try {
+                ResultsView view = channel.last;
+                if (dirty || view == null) {
+                    CompiledPoll poll = pollModelCache.get(pollId);
+                    view = ResultsView.of(poll, resultsAggregation.load(pollId));
+                }
+                if (dirty && channel.last != null) {
+                    ResultsDeltaDto delta = view.diff(channel.last);
+                    if (delta != null) {
+                        for (Subscriber s : channel.subscribers) {
+                            if (!channel.newcomers.contains(s))
+                                s.offer(delta);
+                        }
+                    }
+                }
+                Subscriber newcomer;
+                while ((newcomer = channel.newcomers.poll()) != null) {
+                    newcomer.offer(view.snapshot());
+                }
+                channel.last = view;
+            } catch (PollNotFoundException e) {
+                channels.remove(pollId, channel);
+                channel.subscribers.forEach(s -> s.emitter.complete());
+            } catch (RuntimeException e) {
+                // Retry on the next flush
+                channel.dirty = true;
+                log.warn("Results stream flush failed for poll {}", pollId, e);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        channels.values().forEach(c -> c.subscribers.forEach(s -> s.emitter.complete()));
+        channels.clear();
+        senders.shutdownNow();
+    }
+
+    private static final class Channel {
+        final Queue<Subscriber> subscribers = new ConcurrentLinkedQueue<>();
+        final Queue<Subscriber> newcomers = new ConcurrentLinkedQueue<>();
+        volatile boolean dirty;
+        ResultsView last;
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<ResultsDeltaDto> buffer;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void offer(ResultsDeltaDto frame) {
+            if (closed)
+                return;
+            if (!buffer.offer(frame)) {
+                // Too far behind: drop the client, it reconnects and gets a fresh snapshot
+                closed = true;
+                emitter.completeWithError(new IOException("Results stream subscriber is too slow"));
+                return;
+            }
+            if (draining.compareAndSet(false, true))
+                senders.execute(this::drain);
+        }
+
+        private void drain() {
+            do {
+                try {
+                    ResultsDeltaDto frame;
+                    while (!closed && (frame = buffer.poll()) != null) {
+                        emitter.send(SseEmitter.event()
+                                .name(frame.isSnapshot() ? "snapshot" : "delta")
+                                .data(frame));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    closed = true;
+                    emitter.completeWithError(e);
+                } finally {
+                    draining.set(false);
+                }
+            } while (!closed && !buffer.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
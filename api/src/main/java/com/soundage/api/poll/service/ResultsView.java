@@ -0,0 +1,100 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.cache.CompiledPoll;
+import com.soundage.api.poll.cache.CompiledQuestion;
+import com.soundage.api.poll.dto.RatingBucketDto;
+import com.soundage.api.poll.dto.ResultsDeltaDto;
+import com.soundage.api.poll.entity.Question;
+import com.soundage.api.poll.repository.PollAggregates;
+
+import java.util.*;
+
+/**
+ * Counts of a poll as last sent to stream subscribers, so the next frame can
+ * carry only what changed.
+ */
+final class ResultsView {
+
+    private final UUID pollId;
+    private final long totalResponses;
+    private final Map<UUID, Long> optionCounts = new HashMap<>();
+    private final Map<UUID, Long> questionResponseCounts = new HashMap<>();
+    private final Map<UUID, RatingStatistics> ratings = new HashMap<>();
+
+    private ResultsView(UUID pollId, long totalResponses) {
+        this.pollId = pollId;
+        this.totalResponses = totalResponses;
+    }
+
+    static ResultsView of(CompiledPoll poll, PollAggregates aggregates) {
+        ResultsView view = new ResultsView(poll.getId(), aggregates.getTotalResponses());
+        for (CompiledQuestion q : poll.getQuestions()) {
+            PollAggregates.QuestionAggregate agg = aggregates.getQuestion(q.id());
+            view.questionResponseCounts.put(q.id(), agg.getResponseCount());
+            if (q.type() == Question.QuestionType.rating) {
+                view.ratings.put(q.id(), RatingStatistics.fromTallies(q.ratingScale(), agg));
+            } else if (q.type() != Question.QuestionType.text && q.type() != Question.QuestionType.ranking) {
+                for (UUID optionId : q.optionIds()) {
+                    view.optionCounts.put(optionId, aggregates.getOptionCount(optionId));
+                }
+            }
+        }
+        return view;
+    }
+
+    /** Frame with every count. */
+    ResultsDeltaDto snapshot() {
+        Map<UUID, List<RatingBucketDto>> distributions = new HashMap<>();
+        Map<UUID, Double> averages = new HashMap<>();
+        ratings.forEach((id, stats) -> {
+            distributions.put(id, stats.distribution());
+            averages.put(id, stats.averageRating());
+        });
+        return ResultsDeltaDto.builder()
+                .pollId(pollId)
+                .snapshot(true)
+                .totalResponses(totalResponses)
+                .optionCounts(new HashMap<>(optionCounts))
+                .questionResponseCounts(new HashMap<>(questionResponseCounts))
+                .ratingDistributions(distributions)
+                .averageRatings(averages)
+                .build();
+    }
+
+    /** Frame with the values that differ from {@code previous}, or null if nothing changed. */
+    ResultsDeltaDto diff(ResultsView previous) {
+        Map<UUID, Long> options = changed(optionCounts, previous.optionCounts);
+        Map<UUID, Long> questions = changed(questionResponseCounts, previous.questionResponseCounts);
+        Map<UUID, List<RatingBucketDto>> distributions = new HashMap<>();
+        Map<UUID, Double> averages = new HashMap<>();
+        ratings.forEach((id, stats) -> {
+            RatingStatistics before = previous.ratings.get(id);
+            if (before == null || !stats.sameRatings(before)) {
+                distributions.put(id, stats.distribution());
+                averages.put(id, stats.averageRating());
+            }
+        });
+        if (totalResponses == previous.totalResponses && options.isEmpty() && questions.isEmpty()
+                && distributions.isEmpty()) {
+            return null;
+        }
+        return ResultsDeltaDto.builder()
+                .pollId(pollId)
+                .snapshot(false)
+                .totalResponses(totalResponses)
+                .optionCounts(options)
+                .questionResponseCounts(questions)
+                .ratingDistributions(distributions)
+                .averageRatings(averages)
+                .build();
+    }
+
+    private static Map<UUID, Long> changed(Map<UUID, Long> current, Map<UUID, Long> previous) {
+        Map<UUID, Long> result = new HashMap<>();
+        current.forEach((id, count) -> {
+            if (!count.equals(previous.get(id)))
+                result.put(id, count);
+        });
+        return result;
+    }
+}
@@ -0,0 +1,27 @@
+package com.soundage.api.poll.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/** Bucket width of the vote timeline rollups; buckets start on UTC boundaries. */
+public enum RollupGranularity {
+    minute(ChronoUnit.MINUTES),
+    hour(ChronoUnit.HOURS),
+    day(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /** Start of the bucket containing {@code instant}. */
+    public Instant bucketStart(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    public Duration width() {
+        return unit.getDuration();
+    }
+}
@@ -0,0 +1,281 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.cache.CompiledPoll;
+import com.soundage.api.poll.cache.CompiledQuestion;
+import com.soundage.api.poll.entity.Question;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Net change to the vote tallies produced by one or more written votes. Votes
+ * of a batch are accumulated so each tally row is updated once per
+ * transaction; changes that cancel out are not written at all.
+ */
+public final class TallyDelta {
+
+    private final Map<UUID, Long> responses = new HashMap<>();
+    private final Map<UUID, Long> votes = new HashMap<>();
+    private final Map<UUID, Long> questionResponses = new HashMap<>();
+    private final Map<UUID, Long> options = new HashMap<>();
+    private final Map<UUID, UUID> optionQuestion = new HashMap<>();
+    private final Map<UUID, Long> ratingCounts = new HashMap<>();
+    private final Map<UUID, BigDecimal> ratingSums = new HashMap<>();
+    private final Map<UUID, BigDecimal> ratingSumSquares = new HashMap<>();
+    private final Map<RatingValue, Long> ratingValues = new HashMap<>();
+    private final Map<RankingPosition, Long> rankingPositions = new HashMap<>();
+    private final Map<RankingPair, Long> rankingPairs = new HashMap<>();
+    private final Map<Rollup, long[]> rollups = new HashMap<>();
+    private final Map<TextTerm, Long> textTerms = new HashMap<>();
+    private final List<OptionMembership> memberships = new ArrayList<>();
+
+    /**
+     * Records the effect of one written vote.
+     *
+     * @param inserted    true if the vote created a new response
+     * @param responseSeq ordinal (responses.seq) of the written response
+     * @param before      answers the response had before the vote, captured
+     *                    before {@link AnswerDiff#compute} updates rows in place
+     * @param after       answers the response has now
+     * @param acceptedAt  when the vote was accepted; places it in the timeline
+     */
+    public void record(CompiledPoll poll, boolean inserted, long responseSeq, AnswerDiff diff, List<AnswerKey> before,
+            List<AnswerKey> after, Instant acceptedAt) {
+        Set<UUID> questionsBefore = questionIds(before);
+        Set<UUID> questionsAfter = questionIds(after);
+        if (inserted) {
+            responses.merge(poll.getId(), 1L, Long::sum);
+        }
+        // A resubmission that changes nothing is not counted as an update
+        if (inserted || !diff.isEmpty()) {
+            votes.merge(poll.getId(), 1L, Long::sum);
+            for (RollupGranularity g : RollupGranularity.values()) {
+                long[] counts = rollups.computeIfAbsent(
+                        new Rollup(poll.getId(), g, g.bucketStart(acceptedAt)), k -> new long[2]);
+                counts[inserted ? 0 : 1]++;
+            }
+        }
+        for (UUID q : questionsAfter) {
+            if (!questionsBefore.contains(q))
+                questionResponses.merge(q, 1L, Long::sum);
+        }
+        for (UUID q : questionsBefore) {
+            if (!questionsAfter.contains(q))
+                questionResponses.merge(q, -1L, Long::sum);
+        }
+        for (AnswerKey key : diff.removed()) {
+            apply(poll, responseSeq, key, -1);
+        }
+        for (AnswerKey key : diff.added()) {
+            apply(poll, responseSeq, key, 1);
+        }
+        if (!diff.isEmpty()) {
+            Map<UUID, List<UUID>> rankingsBefore = rankings(before);
+            Map<UUID, List<UUID>> rankingsAfter = rankings(after);
+            Set<UUID> rankedQuestions = new HashSet<>(rankingsBefore.keySet());
+            rankedQuestions.addAll(rankingsAfter.keySet());
+            for (UUID q : rankedQuestions) {
+                CompiledQuestion question = poll.getQuestion(q);
+                if (question != null && question.type() == Question.QuestionType.ranking) {
+                    recordRanking(q, rankingsBefore.getOrDefault(q, List.of()),
+                            rankingsAfter.getOrDefault(q, List.of()));
+                }
+            }
+        }
+    }
+
+    /** Replaces a ranking (option ids, best first) by another in the position and pair counts. */
+    private void recordRanking(UUID questionId, List<UUID> before, List<UUID> after) {
+        if (before.equals(after))
+            return;
+        applyRanking(questionId, before, -1);
+        applyRanking(questionId, after, 1);
+    }
+
+    private void applyRanking(UUID questionId, List<UUID> ranking, long sign) {
+        for (int i = 0; i < ranking.size(); i++) {
+            UUID winner = ranking.get(i);
+            rankingPositions.merge(new RankingPosition(questionId, winner, i + 1), sign, Long::sum);
+            for (int j = i + 1; j < ranking.size(); j++) {
+                rankingPairs.merge(new RankingPair(questionId, winner, ranking.get(j)), sign, Long::sum);
+            }
+        }
+    }
+
+    private static Set<UUID> questionIds(List<AnswerKey> answers) {
+        Set<UUID> ids = new HashSet<>();
+        for (AnswerKey a : answers) {
+            ids.add(a.questionId());
+        }
+        return ids;
+    }
+
+    /** Ranked option ids per question, best first. */
+    private static Map<UUID, List<UUID>> rankings(List<AnswerKey> answers) {
+        Map<UUID, List<AnswerKey>> byQuestion = new HashMap<>();
+        for (AnswerKey a : answers) {
+            if (a.position() != null && a.optionId() != null)
+                byQuestion.computeIfAbsent(a.questionId(), id -> new ArrayList<>()).add(a);
+        }
+        Map<UUID, List<UUID>> result = new HashMap<>();
+        byQuestion.forEach((q, ranked) -> {
+            ranked.sort(Comparator.comparing(AnswerKey::position));
+            result.put(q, ranked.stream().map(AnswerKey::optionId).toList());
+        });
+        return result;
+    }
+
+    private void apply(CompiledPoll poll, long responseSeq, AnswerKey key, long sign) {
+        CompiledQuestion question = poll.getQuestion(key.questionId());
+        if (question == null)
+            return;
+        if (key.optionId() != null && key.position() == null) {
+            options.merge(key.optionId(), sign, Long::sum);
+            optionQuestion.put(key.optionId(), question.id());
+            memberships.add(new OptionMembership(poll.getId(), key.optionId(), responseSeq, sign > 0));
+        }
+        if (question.type() == Question.QuestionType.text && key.textValue() != null) {
+            for (String term : TextTerms.of(key.textValue())) {
+                textTerms.merge(new TextTerm(question.id(), term), sign, Long::sum);
+            }
+        }
+        if (question.type() == Question.QuestionType.rating) {
+            BigDecimal value = key.numericValue() != null
+                    ? key.numericValue()
+                    : key.optionId() != null ? question.optionValues().get(key.optionId()) : null;
+            if (value != null) {
+                ratingCounts.merge(question.id(), sign, Long::sum);
+                ratingSums.merge(question.id(), value.multiply(BigDecimal.valueOf(sign)), BigDecimal::add);
+                ratingSumSquares.merge(question.id(), value.multiply(value).multiply(BigDecimal.valueOf(sign)),
+                        BigDecimal::add);
+                ratingValues.merge(new RatingValue(question.id(), value.stripTrailingZeros()), sign, Long::sum);
+            }
+        }
+    }
+
+    public Map<UUID, Long> getResponses() {
+        return nonZero(responses);
+    }
+
+    /** Votes that changed something, per poll; advances poll_tallies.vote_version. */
+    public Map<UUID, Long> getVotes() {
+        return nonZero(votes);
+    }
+
+    public Map<UUID, Long> getQuestionResponses() {
+        return nonZero(questionResponses);
+    }
+
+    public Map<UUID, Long> getOptions() {
+        return nonZero(options);
+    }
+
+    public UUID getOptionQuestion(UUID optionId) {
+        return optionQuestion.get(optionId);
+    }
+
+    /** Questions whose rating count or sums changed. */
+    public Set<UUID> getRatingQuestions() {
+        Set<UUID> changed = new TreeSet<>();
+        ratingCounts.forEach((q, c) -> {
+            if (c != 0)
+                changed.add(q);
+        });
+        ratingSums.forEach((q, s) -> {
+            if (s.signum() != 0)
+                changed.add(q);
+        });
+        ratingSumSquares.forEach((q, s) -> {
+            if (s.signum() != 0)
+                changed.add(q);
+        });
+        return changed;
+    }
+
+    public long getRatingCount(UUID questionId) {
+        return ratingCounts.getOrDefault(questionId, 0L);
+    }
+
+    public BigDecimal getRatingSum(UUID questionId) {
+        return ratingSums.getOrDefault(questionId, BigDecimal.ZERO);
+    }
+
+    public BigDecimal getRatingSumSquares(UUID questionId) {
+        return ratingSumSquares.getOrDefault(questionId, BigDecimal.ZERO);
+    }
+
+    public Map<RatingValue, Long> getRatingValues() {
+        return nonZero(ratingValues, Comparator.comparing(RatingValue::questionId).thenComparing(RatingValue::value));
+    }
+
+    public Map<RankingPosition, Long> getRankingPositions() {
+        return nonZero(rankingPositions, Comparator.comparing(RankingPosition::questionId)
+                .thenComparing(RankingPosition::optionId)
+                .thenComparingInt(RankingPosition::position));
+    }
+
+    public Map<RankingPair, Long> getRankingPairs() {
+        return nonZero(rankingPairs, Comparator.comparing(RankingPair::questionId)
+                .thenComparing(RankingPair::winnerOptionId)
+                .thenComparing(RankingPair::loserOptionId));
+    }
+
+    public Map<TextTerm, Long> getTextTerms() {
+        return nonZero(textTerms, Comparator.comparing(TextTerm::questionId).thenComparing(TextTerm::term));
+    }
+
+    /** New and updated response counts ([0], [1]) per timeline bucket. */
+    public Map<Rollup, long[]> getRollups() {
+        Map<Rollup, long[]> result = new TreeMap<>(Comparator.comparing(Rollup::pollId)
+                .thenComparing(Rollup::granularity)
+                .thenComparing(Rollup::bucketStart));
+        result.putAll(rollups);
+        return result;
+    }
+
+    /** Option selections added and removed, in the order the votes were written. */
+    public List<OptionMembership> getOptionMemberships() {
+        return List.copyOf(memberships);
+    }
+
+    public boolean isEmpty() {
+        return getResponses().isEmpty() && getVotes().isEmpty() && getQuestionResponses().isEmpty() && getOptions().isEmpty()
+                && getRatingQuestions().isEmpty() && getRatingValues().isEmpty()
+                && getRankingPositions().isEmpty() && getRankingPairs().isEmpty() && getTextTerms().isEmpty()
+                && rollups.isEmpty();
+    }
+
+    private static Map<UUID, Long> nonZero(Map<UUID, Long> deltas) {
+        return nonZero(deltas, Comparator.naturalOrder());
+    }
+
+    /** Sorted by key so concurrent transactions lock tally rows in the same order. */
+    private static <K> Map<K, Long> nonZero(Map<K, Long> deltas, Comparator<? super K> order) {
+        Map<K, Long> result = new TreeMap<>(order);
+        deltas.forEach((k, v) -> {
+            if (v != 0)
+                result.put(k, v);
+        });
+        return result;
+    }
+
+    public record RatingValue(UUID questionId, BigDecimal value) {
+    }
+
+    public record RankingPosition(UUID questionId, UUID optionId, int position) {
+    }
+
+    public record RankingPair(UUID questionId, UUID winnerOptionId, UUID loserOptionId) {
+    }
+
+    public record Rollup(UUID pollId, RollupGranularity granularity, Instant bucketStart) {
+    }
+
+    public record TextTerm(UUID questionId, String term) {
+    }
+
+    /** A response (by ordinal) selecting or unselecting an option; keeps the option bitmaps current. */
+    public record OptionMembership(UUID pollId, UUID optionId, long responseSeq, boolean selected) {
+    }
+}
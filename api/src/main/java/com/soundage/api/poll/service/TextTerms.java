@@ -0,0 +1,55 @@
+package com.soundage.api.poll.service;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenization of text answers for the term tallies (text_term_tallies). Must
+ * stay in line with the rebuild in V15__rebuild_text_term_tallies.sql:
+ * lowercased runs of letters and digits of 3 to 40 characters, stop words
+ * left out, the first {@value #MAX_TERMS_PER_ANSWER} distinct ones per answer.
+ * <p>
+ * Term rows are shared by every voter of a question and are updated in the
+ * vote transaction, so an answer touches as few of them as possible. Changing
+ * the stop words or the limit needs a migration that rebuilds the tallies,
+ * or removing an answer would subtract terms it never added.
+ */
+public final class TextTerms {
+
+    public static final int MIN_LENGTH = 3;
+    public static final int MAX_LENGTH = 40;
+    public static final int MAX_TERMS_PER_ANSWER = 20;
+
+    /** English and French function words, not tallied. */
+    public static final Set<String> STOP_WORDS = Set.of(
+            "the", "and", "for", "are", "but", "not", "you", "all", "any", "can", "had", "her", "was", "one",
+            "our", "out", "has", "have", "his", "how", "its", "she", "they", "them", "their", "this", "that",
+            "these", "those", "with", "from", "what", "when", "where", "which", "who", "will", "would",
+            "there", "been", "were", "than", "then", "into", "more", "some", "such", "only", "very", "also",
+            "just", "about", "your", "because", "should", "could", "les", "des", "une", "est", "pas", "que",
+            "qui", "dans", "pour", "par", "sur", "avec", "son", "ses", "mais", "ont", "aux", "nous", "vous",
+            "elle", "ils", "elles", "cette", "ces", "sont", "tout", "tous", "plus", "comme", "leur", "leurs");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextTerms() {
+    }
+
+    /** Distinct terms of a text, in order of first appearance. */
+    public static Set<String> of(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null)
+            return terms;
+        for (String word : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            int length = word.codePointCount(0, word.length());
+            if (length >= MIN_LENGTH && length <= MAX_LENGTH && !STOP_WORDS.contains(word)) {
+                terms.add(word);
+                if (terms.size() == MAX_TERMS_PER_ANSWER)
+                    break;
+            }
+        }
+        return terms;
+    }
+}
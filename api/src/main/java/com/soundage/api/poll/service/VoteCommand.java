@@ -0,0 +1,19 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.dto.AnswerInputDto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A vote that passed the poll-level checks (open window, anonymous policy) and
+ * is ready to be written, either inline or by the write-behind queue.
+ *
+ * @param receiptId   id handed back to the client when the vote is queued
+ * @param userId      authenticated voter, or null for an anonymous vote
+ * @param anonymousId anonymous voter id, only used when userId is null
+ */
+public record VoteCommand(UUID receiptId, UUID pollId, UUID userId, String anonymousId, String clientIp,
+        List<AnswerInputDto> answers, Instant acceptedAt) {
+}
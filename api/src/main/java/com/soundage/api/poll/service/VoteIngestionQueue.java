@@ -0,0 +1,291 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.common.exception.InvalidVoteException;
+import com.soundage.api.common.exception.PollNotFoundException;
+import com.soundage.api.common.exception.VoteIngestionUnavailableException;
+import com.soundage.api.common.exception.VoteQueueFullException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded write-behind buffer for votes, active when
+ * soundage.votes.ingestion.mode=async. Accepted votes are queued and written by
+ * a single drainer thread in batched transactions; when the queue is full new
+ * votes are shed with {@link VoteQueueFullException}. On shutdown the queue
+ * stops accepting votes and is drained before the datasource goes away.
+ * <p>
+ * A vote that can never be written (invalid against the current poll, or its
+ * poll deleted) is dropped; any other failure (database down, deadlock,
+ * timeout) is retried with backoff, holding back the votes behind it, until it
+ * succeeds or the application stops.
+ * <p>
+ * When the {@link VoteJournal} is enabled each vote is journaled before it is
+ * acknowledged, the journal is advanced only past votes that were written or
+ * dropped, and entries left over from a crash (or a shutdown that could not
+ * drain) are written before new votes are accepted.
+ */
+@Component
+@Slf4j
+public class VoteIngestionQueue implements SmartLifecycle {
+
+    private static final long INITIAL_BACKOFF_MS = 100;
+    private static final long MAX_BACKOFF_MS = 10_000;
+
+    private final VoteWriter voteWriter;
+    private final VoteJournal journal;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxWaitMs;
+    private final long shutdownTimeoutMs;
+    private final BlockingQueue<VoteJournal.Entry> queue;
+    private final Object submitLock = new Object();
+
+    private volatile boolean running;
+    private volatile boolean accepting;
+    private Thread drainer;
+    /** Seq of the last vote queued (journal seq when journaled), and of the last one written or dropped. */
+    private volatile long submittedSeq;
+    private volatile long writtenSeq;
+
+    public VoteIngestionQueue(VoteWriter voteWriter, VoteJournal journal,
+            @Value("${soundage.votes.ingestion.mode:sync}") String mode,
+            @Value("${soundage.votes.ingestion.queue-capacity:10000}") int capacity,
+            @Value("${soundage.votes.ingestion.batch-size:200}") int batchSize,
+            @Value("${soundage.votes.ingestion.max-wait-ms:50}") long maxWaitMs,
+            @Value("${soundage.votes.ingestion.shutdown-timeout-ms:30000}") long shutdownTimeoutMs) {
+        this.voteWriter = voteWriter;
+        this.journal = journal;
+        this.enabled = "async".equalsIgnoreCase(mode);
+        this.batchSize = batchSize;
+        this.maxWaitMs = maxWaitMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(enabled ? capacity : 1);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a vote for writing.
+     *
+     * @throws VoteQueueFullException             if the queue is at capacity
+     * @throws VoteIngestionUnavailableException if the queue is not started or shutting down
+     */
+    public void submit(VoteCommand command) {
+        // Journal order must match queue order so a replay applies votes in the
+        // order they were accepted
+        synchronized (submitLock) {
+            if (!accepting) {
+                throw new VoteIngestionUnavailableException();
+            }
+            if (queue.remainingCapacity() == 0) {
+                throw new VoteQueueFullException();
+            }
+            long seq = submittedSeq + 1;
+            if (journal.isEnabled()) {
+                try {
+                    seq = journal.append(command);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not journal vote", e);
+                }
+            }
+            queue.add(new VoteJournal.Entry(seq, command));
+            submittedSeq = seq;
+        }
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    /** Position of the last vote queued so far, for {@link #isWrittenThrough}. */
+    public long checkpoint() {
+        return submittedSeq;
+    }
+
+    /** True once every vote queued up to {@code checkpoint} is written (or dropped as invalid). */
+    public boolean isWrittenThrough(long checkpoint) {
+        return !enabled || writtenSeq >= checkpoint;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running)
+            return;
+        if (journal.isEnabled()) {
+            replayJournal();
+        }
+        running = true;
+        accepting = true;
+        drainer = new Thread(this::drainLoop, "vote-drainer");
+        drainer.setDaemon(false);
+        drainer.start();
+        log.info("Vote write-behind queue started (capacity={}, batchSize={})",
+                queue.remainingCapacity(), batchSize);
+    }
+
+    @Override
+    public void stop() {
+        if (!running)
+            return;
+        // Under the submit lock, so no request is between the check and its append
+        synchronized (submitLock) {
+            accepting = false;
+        }
+        running = false;
+        try {
+            drainer.join(shutdownTimeoutMs);
+            if (drainer.isAlive()) {
+                // Still retrying a failed write; journaled votes are replayed on the next start
+                drainer.interrupt();
+                drainer.join(shutdownTimeoutMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Vote queue stopped with {} votes not written{}", queue.size(),
+                    journal.isEnabled() ? " (kept in the journal)" : "");
+        }
+        if (journal.isEnabled()) {
+            synchronized (submitLock) {
+                journal.close();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Stop after the web server has stopped taking requests, before beans are destroyed. */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void replayJournal() {
+        try {
+            List<VoteJournal.Entry> entries = journal.recover();
+            if (!entries.isEmpty()) {
+                log.info("Replaying {} journaled votes", entries.size());
+            }
+            for (int i = 0; i < entries.size(); i += batchSize) {
+                List<VoteJournal.Entry> batch = entries.subList(i, Math.min(i + batchSize, entries.size()));
+                writeBatch(batch);
+                journal.commit(batch.get(batch.size() - 1).seq());
+            }
+            if (!entries.isEmpty()) {
+                submittedSeq = entries.get(entries.size() - 1).seq();
+                writtenSeq = submittedSeq;
+            }
+            journal.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open vote journal", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying the vote journal", e);
+        }
+    }
+
+    private void drainLoop() {
+        List<VoteJournal.Entry> batch = new ArrayList<>(batchSize);
+        // Keep going after stop() until everything already accepted is written
+        while (running || !queue.isEmpty()) {
+            try {
+                VoteJournal.Entry first = queue.poll(maxWaitMs, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+                long last = batch.get(batch.size() - 1).seq();
+                if (journal.isEnabled()) {
+                    journal.commit(last);
+                }
+                writtenSeq = last;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns once every vote of the batch is written or dropped as permanently
+     * invalid; retries anything else.
+     *
+     * @throws InterruptedException if interrupted while backing off; nothing
+     *                              of the batch may be considered written
+     */
+    private void writeBatch(List<VoteJournal.Entry> batch) throws InterruptedException {
+        List<VoteCommand> commands = batch.stream().map(VoteJournal.Entry::command).toList();
+        long backoffMs = INITIAL_BACKOFF_MS;
+        while (true) {
+            try {
+                voteWriter.writeBatch(commands);
+                return;
+            } catch (RuntimeException e) {
+                if (isPermanent(e))
+                    break;
+                log.warn("Batch of {} votes failed, retrying in {} ms: {}", batch.size(), backoffMs, e.getMessage());
+                backoffMs = backOff(backoffMs);
+            }
+        }
+        // One bad vote rolls back the whole batch; write the votes one by one so
+        // only the invalid ones are dropped
+        log.warn("Batch of {} votes holds an invalid vote, writing them individually", batch.size());
+        for (VoteCommand command : commands) {
+            writeOne(command);
+        }
+    }
+
+    private void writeOne(VoteCommand command) throws InterruptedException {
+        long backoffMs = INITIAL_BACKOFF_MS;
+        while (true) {
+            try {
+                voteWriter.write(command);
+                return;
+            } catch (RuntimeException e) {
+                if (isPermanent(e)) {
+                    log.error("Dropping queued vote {} for poll {}: {}",
+                            command.receiptId(), command.pollId(), e.getMessage());
+                    return;
+                }
+                log.warn("Vote {} failed, retrying in {} ms: {}", command.receiptId(), backoffMs, e.getMessage());
+                backoffMs = backOff(backoffMs);
+            }
+        }
+    }
+
+    private static long backOff(long backoffMs) throws InterruptedException {
+        Thread.sleep(backoffMs);
+        return Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+    }
+
+    /**
+     * Failures that retrying cannot fix: the vote no longer fits its poll
+     * (question or option removed by an edit) or the poll is gone.
+     */
+    static boolean isPermanent(RuntimeException e) {
+        return e instanceof InvalidVoteException
+                || e instanceof PollNotFoundException
+                || e instanceof IllegalArgumentException
+                || e instanceof DataIntegrityViolationException;
+    }
+}
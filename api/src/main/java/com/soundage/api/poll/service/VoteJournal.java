@@ -0,0 +1,352 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.dto.AnswerInputDto;
+import com.soundage.api.poll.dto.RankingEntryDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of queued votes for the write-behind path
+ * (soundage.votes.journal.enabled=true). A vote is appended before it is
+ * acknowledged; once the batch containing it is committed to the database the
+ * journal is told the committed sequence and drops segments that are fully
+ * committed. On startup, entries still in the journal are replayed.
+ * <p>
+ * Replaying an entry that had in fact been committed is harmless: votes are
+ * upserted per voter and answers diffed, and entries are replayed in the order
+ * they were accepted. Writes to the mapped segment survive a process crash;
+ * set soundage.votes.journal.fsync=true to also survive a host crash at the
+ * cost of an msync per vote.
+ * <p>
+ * Record layout: int payloadLength, int crc32(payload), long seq, payload. A
+ * zero length marks the end of a segment.
+ */
+@Component
+@Slf4j
+public class VoteJournal {
+
+    private static final int HEADER_BYTES = 16;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final byte FORMAT_VERSION = 1;
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentSize;
+    private final boolean fsync;
+
+    private final Deque<Segment> closedSegments = new ArrayDeque<>();
+    private Segment active;
+    private long nextSeq = 1;
+    private long lastAppendedSeq;
+
+    public VoteJournal(@Value("${soundage.votes.journal.enabled:false}") boolean enabled,
+            @Value("${soundage.votes.journal.dir:./data/vote-journal}") String dir,
+            @Value("${soundage.votes.journal.segment-size:67108864}") int segmentSize,
+            @Value("${soundage.votes.journal.fsync:false}") boolean fsync) {
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reads every entry left in the journal directory, in sequence order. Must be
+     * called before {@link #open()}. Segments holding no entries (e.g. the active
+     * segment of a clean shutdown) are deleted, so their names can be reused.
+     */
+    public synchronized List<Entry> recover() throws IOException {
+        Files.createDirectories(dir);
+        List<Entry> entries = new ArrayList<>();
+        for (Path file : listSegments()) {
+            long lastSeq = readSegment(file, entries);
+            if (lastSeq == 0) {
+                Files.deleteIfExists(file);
+            } else {
+                closedSegments.add(new Segment(file, null, null, lastSeq));
+            }
+        }
+        if (!entries.isEmpty()) {
+            nextSeq = entries.get(entries.size() - 1).seq() + 1;
+            lastAppendedSeq = nextSeq - 1;
+        }
+        return entries;
+    }
+
+    /** Opens a fresh active segment for appends. */
+    public synchronized void open() throws IOException {
+        Files.createDirectories(dir);
+        active = openSegment(nextSeq);
+    }
+
+    /**
+     * Appends a vote and returns its sequence number. The caller must append in
+     * the same order the votes will be written.
+     */
+    public synchronized long append(VoteCommand command) throws IOException {
+        byte[] payload = encode(command);
+        int needed = HEADER_BYTES + payload.length + Integer.BYTES;
+        if (needed > segmentSize) {
+            throw new IllegalArgumentException("Vote too large for journal segment: " + payload.length + " bytes");
+        }
+        if (active.buffer.remaining() < needed) {
+            roll();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        long seq = nextSeq++;
+        MappedByteBuffer buf = active.buffer;
+        int start = buf.position();
+        buf.putInt(payload.length).putInt((int) crc.getValue()).putLong(seq).put(payload);
+        // End marker after the last record; overwritten by the next append
+        buf.putInt(buf.position(), 0);
+        if (fsync) {
+            buf.force(start, buf.position() - start + Integer.BYTES);
+        }
+        active.lastSeq = seq;
+        lastAppendedSeq = seq;
+        return seq;
+    }
+
+    /**
+     * Marks every entry up to and including seq as committed. Fully committed
+     * segments are deleted; the active segment is truncated once it holds nothing
+     * uncommitted.
+     */
+    public synchronized void commit(long seq) {
+        while (!closedSegments.isEmpty() && closedSegments.peekFirst().lastSeq <= seq) {
+            Segment segment = closedSegments.pollFirst();
+            try {
+                Files.deleteIfExists(segment.file);
+            } catch (IOException e) {
+                log.warn("Could not delete journal segment {}: {}", segment.file, e.getMessage());
+            }
+        }
+        if (active != null && lastAppendedSeq <= seq && active.buffer.position() > 0) {
+            active.buffer.putInt(0, 0);
+            active.buffer.position(0);
+        }
+    }
+
+    public synchronized void close() {
+        if (active == null)
+            return;
+        try {
+            active.buffer.force();
+            active.channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close journal segment {}: {}", active.file, e.getMessage());
+        }
+        active = null;
+    }
+
+    private void roll() throws IOException {
+        active.buffer.force();
+        active.channel.close();
+        closedSegments.add(new Segment(active.file, null, null, active.lastSeq));
+        active = openSegment(nextSeq);
+    }
+
+    private Segment openSegment(long firstSeq) throws IOException {
+        Path file = dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX));
+        // A closed segment is deleted on commit; mapping it again would lose every append
+        for (Segment closed : closedSegments) {
+            if (closed.file.equals(file))
+                throw new IllegalStateException("Journal segment still holds uncommitted entries: " + file);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        buffer.putInt(0, 0);
+        return new Segment(file, channel, buffer, firstSeq - 1);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /** Reads valid records until the end marker, a torn write or a stale record. */
+    private long readSegment(Path file, List<Entry> out) throws IOException {
+        long lastSeq = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            long previous = out.isEmpty() ? 0 : out.get(out.size() - 1).seq();
+            while (buf.remaining() >= HEADER_BYTES) {
+                int length = buf.getInt();
+                if (length <= 0 || length > buf.remaining() - Integer.BYTES - Long.BYTES)
+                    break;
+                int checksum = buf.getInt();
+                long seq = buf.getLong();
+                byte[] payload = new byte[length];
+                buf.get(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum || seq <= previous) {
+                    break;
+                }
+                try {
+                    out.add(new Entry(seq, decode(payload)));
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable journal entry {} in {}", seq, file);
+                }
+                previous = seq;
+                lastSeq = seq;
+            }
+        }
+        return lastSeq;
+    }
+
+    static byte[] encode(VoteCommand c) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FORMAT_VERSION);
+        writeUuid(out, c.receiptId());
+        writeUuid(out, c.pollId());
+        writeUuid(out, c.userId());
+        writeString(out, c.anonymousId());
+        writeString(out, c.clientIp());
+        out.writeLong(c.acceptedAt().getEpochSecond());
+        out.writeInt(c.acceptedAt().getNano());
+        List<AnswerInputDto> answers = c.answers() != null ? c.answers() : List.of();
+        out.writeInt(answers.size());
+        for (AnswerInputDto a : answers) {
+            writeUuid(out, a.getQuestionId());
+            writeUuid(out, a.getOptionId());
+            if (a.getOptionIds() == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(a.getOptionIds().size());
+                for (UUID id : a.getOptionIds())
+                    writeUuid(out, id);
+            }
+            writeString(out, a.getTextValue());
+            writeString(out, a.getNumericValue() != null ? a.getNumericValue().toPlainString() : null);
+            if (a.getRanking() == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(a.getRanking().size());
+                for (RankingEntryDto r : a.getRanking()) {
+                    writeUuid(out, r.getOptionId());
+                    out.writeBoolean(r.getPosition() != null);
+                    out.writeInt(r.getPosition() != null ? r.getPosition() : 0);
+                }
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static VoteCommand decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION)
+            throw new IOException("Unsupported journal format " + version);
+        UUID receiptId = readUuid(in);
+        UUID pollId = readUuid(in);
+        UUID userId = readUuid(in);
+        String anonymousId = readString(in);
+        String clientIp = readString(in);
+        Instant acceptedAt = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        int answerCount = in.readInt();
+        List<AnswerInputDto> answers = new ArrayList<>(answerCount);
+        for (int i = 0; i < answerCount; i++) {
+            AnswerInputDto a = new AnswerInputDto();
+            a.setQuestionId(readUuid(in));
+            a.setOptionId(readUuid(in));
+            int optionCount = in.readInt();
+            if (optionCount >= 0) {
+                List<UUID> ids = new ArrayList<>(optionCount);
+                for (int j = 0; j < optionCount; j++)
+                    ids.add(readUuid(in));
+                a.setOptionIds(ids);
+            }
+            a.setTextValue(readString(in));
+            String numeric = readString(in);
+            a.setNumericValue(numeric != null ? new BigDecimal(numeric) : null);
+            int rankingCount = in.readInt();
+            if (rankingCount >= 0) {
+                List<RankingEntryDto> ranking = new ArrayList<>(rankingCount);
+                for (int j = 0; j < rankingCount; j++) {
+                    UUID optionId = readUuid(in);
+                    boolean hasPosition = in.readBoolean();
+                    int position = in.readInt();
+                    ranking.add(new RankingEntryDto(optionId, hasPosition ? position : null));
+                }
+                a.setRanking(ranking);
+            }
+            answers.add(a);
+        }
+        return new VoteCommand(receiptId, pollId, userId, anonymousId, clientIp, answers, acceptedAt);
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeBoolean(id != null);
+        if (id != null) {
+            out.writeLong(id.getMostSignificantBits());
+            out.writeLong(id.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0)
+            return null;
+        byte[] b = new byte[length];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    /** A journaled vote and its sequence number. */
+    public record Entry(long seq, VoteCommand command) {
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private long lastSeq;
+
+        private Segment(Path file, FileChannel channel, MappedByteBuffer buffer, long lastSeq) {
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.lastSeq = lastSeq;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.repository.VoteRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Drops old minute and hour timeline buckets; day buckets are kept for the
+ * life of the poll.
+ */
+@Component
+@Slf4j
+public class VoteRollupRetention {
+
+    private final VoteRollupRepository voteRollupRepository;
+    private final Duration minuteRetention;
+    private final Duration hourRetention;
+
+    public VoteRollupRetention(VoteRollupRepository voteRollupRepository,
+            @Value("${soundage.timeline.minute-retention-days:7}") long minuteRetentionDays,
+            @Value("${soundage.timeline.hour-retention-days:90}") long hourRetentionDays) {
+        this.voteRollupRepository = voteRollupRepository;
+        this.minuteRetention = Duration.ofDays(minuteRetentionDays);
+        this.hourRetention = Duration.ofDays(hourRetentionDays);
+    }
+
+    @Scheduled(cron = "${soundage.timeline.purge-cron:0 15 3 * * *}")
+    public void purge() {
+        Instant now = Instant.now();
+        int minutes = voteRollupRepository.deleteBefore(RollupGranularity.minute, now.minus(minuteRetention));
+        int hours = voteRollupRepository.deleteBefore(RollupGranularity.hour, now.minus(hourRetention));
+        log.info("Purged {} minute and {} hour vote timeline buckets", minutes, hours);
+    }
+}
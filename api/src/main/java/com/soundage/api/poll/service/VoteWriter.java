@@ -0,0 +1,163 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.cache.CompiledPoll;
+import com.soundage.api.poll.cache.CompiledQuestion;
+import com.soundage.api.poll.cache.PollModelCache;
+import com.soundage.api.poll.dto.AnswerInputDto;
+import com.soundage.api.poll.dto.RankingEntryDto;
+import com.soundage.api.poll.entity.*;
+import com.soundage.api.poll.repository.AnswerRepository;
+import com.soundage.api.poll.repository.OptionRepository;
+import com.soundage.api.poll.repository.QuestionRepository;
+import com.soundage.api.poll.repository.ResponseRepository;
+import com.soundage.api.poll.repository.ResponseUpsertRepository;
+import com.soundage.api.poll.repository.TallyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Writes accepted votes to responses/answers. Used directly by
+ * {@link VoteService} in synchronous mode and by {@link VoteIngestionQueue} to
+ * write a whole batch of queued votes in one transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class VoteWriter {
+
+    private final PollModelCache pollModelCache;
+    private final ResponseRepository responseRepository;
+    private final QuestionRepository questionRepository;
+    private final OptionRepository optionRepository;
+    private final AnswerRepository answerRepository;
+    private final ResponseUpsertRepository responseUpsertRepository;
+    private final TallyRepository tallyRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public WriteResult write(VoteCommand command) {
+        TallyDelta delta = new TallyDelta();
+        WriteResult result = writeOne(command, delta);
+        tallyRepository.apply(delta);
+        eventPublisher.publishEvent(new VotesWrittenEvent(Set.of(command.pollId()), delta.getOptionMemberships()));
+        return result;
+    }
+
+    /** Writes all votes in one transaction; tallies are updated once for the whole batch. */
+    @Transactional
+    public List<WriteResult> writeBatch(List<VoteCommand> commands) {
+        TallyDelta delta = new TallyDelta();
+        List<WriteResult> results = new ArrayList<>(commands.size());
+        for (VoteCommand command : commands) {
+            results.add(writeOne(command, delta));
+        }
+        tallyRepository.apply(delta);
+        Set<UUID> pollIds = new HashSet<>();
+        commands.forEach(c -> pollIds.add(c.pollId()));
+        eventPublisher.publishEvent(new VotesWrittenEvent(pollIds, delta.getOptionMemberships()));
+        return results;
+    }
+
+    private WriteResult writeOne(VoteCommand command, TallyDelta delta) {
+        UUID pollId = command.pollId();
+        CompiledPoll poll = pollModelCache.get(pollId);
+
+        List<Answer> answers = new ArrayList<>();
+
+        for (AnswerInputDto input : command.answers()) {
+            CompiledQuestion compiledQuestion = poll.getQuestion(input.getQuestionId());
+            if (compiledQuestion == null) {
+                throw new IllegalArgumentException("Unknown question ID: " + input.getQuestionId());
+            }
+            Question question = questionRepository.getReferenceById(compiledQuestion.id());
+
+            if (input.getOptionId() != null) {
+                Answer a = Answer.builder()
+                        .question(question)
+                        .option(optionOf(compiledQuestion, input.getOptionId()))
+                        .build();
+                answers.add(a);
+            }
+            if (input.getOptionIds() != null) {
+                for (UUID optId : input.getOptionIds()) {
+                    Answer a = Answer.builder()
+                            .question(question)
+                            .option(optionOf(compiledQuestion, optId))
+                            .build();
+                    answers.add(a);
+                }
+            }
+            if (input.getTextValue() != null && !input.getTextValue().isBlank()) {
+                Answer a = Answer.builder()
+                        .question(question)
+                        .textValue(input.getTextValue())
+                        .build();
+                answers.add(a);
+            }
+            if (input.getNumericValue() != null) {
+                Answer a = Answer.builder()
+                        .question(question)
+                        .numericValue(input.getNumericValue())
+                        .build();
+                answers.add(a);
+            }
+            if (input.getRanking() != null) {
+                for (RankingEntryDto entry : input.getRanking()) {
+                    Answer a = Answer.builder()
+                            .question(question)
+                            .option(entry.getOptionId() != null
+                                    ? optionOf(compiledQuestion, entry.getOptionId())
+                                    : null)
+                            .position(entry.getPosition())
+                            .build();
+                    answers.add(a);
+                }
+            }
+        }
+
+        // One statement: insert the response or touch the existing one for this voter
+        ResponseUpsertRepository.UpsertResult upsert = command.userId() != null
+                ? responseUpsertRepository.upsertForUser(pollId, command.userId(), command.clientIp())
+                : responseUpsertRepository.upsertForAnonymous(pollId, command.anonymousId(), command.clientIp());
+        boolean isUpdate = !upsert.inserted();
+        Response response = responseRepository.getReferenceById(upsert.responseId());
+        answers.forEach(a -> a.setResponse(response));
+
+        // On a vote change only the rows that differ are touched; new rows are
+        // flushed as a single JDBC batch (see hibernate.jdbc.batch_size)
+        List<Answer> existing = isUpdate ? answerRepository.findByResponseId(upsert.responseId()) : List.of();
+        // Taken before the diff, which updates changed rows of existing in place
+        List<AnswerKey> before = existing.stream().map(AnswerKey::of).toList();
+        AnswerDiff diff = AnswerDiff.compute(existing, answers);
+        if (!diff.toDelete().isEmpty()) {
+            answerRepository.deleteAllInBatch(diff.toDelete());
+        }
+        answerRepository.saveAll(diff.toInsert());
+
+        delta.record(poll, upsert.inserted(), upsert.seq(), diff, before,
+                answers.stream().map(AnswerKey::of).toList(), command.acceptedAt());
+        return new WriteResult(upsert.responseId(), isUpdate);
+    }
+
+    /**
+     * Option membership is checked against the compiled poll, so no option rows
+     * are read; the answer references the option by id only.
+     */
+    private Option optionOf(CompiledQuestion question, UUID optionId) {
+        if (!question.hasOption(optionId)) {
+            throw new IllegalArgumentException(
+                    "Option " + optionId + " does not belong to question " + question.id());
+        }
+        return optionRepository.getReferenceById(optionId);
+    }
+
+    /**
+     * @param responseId id of the written response
+     * @param updated    true if the voter already had a response that was changed
+     */
+    public record WriteResult(UUID responseId, boolean updated) {
+    }
+}
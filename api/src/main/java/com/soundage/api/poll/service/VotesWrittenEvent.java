@@ -0,0 +1,16 @@
+package com.soundage.api.poll.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published by {@link VoteWriter} inside the vote transaction; listeners that
+ * need committed data use {@code @TransactionalEventListener}.
+ *
+ * @param pollIds           polls that received votes
+ * @param optionMemberships option selections added and removed by the votes, in
+ *                          write order
+ */
+public record VotesWrittenEvent(Set<UUID> pollIds, List<TallyDelta.OptionMembership> optionMemberships) {
+}
@@ -2,16 +2,23 @@ package com.soundage.api.user.controller;
 
 import com.soundage.api.common.response.ApiResponse;
 import com.soundage.api.config.security.RequiresAdmin;
+import com.soundage.api.user.dto.UpdateUserAccessRequest;
 import com.soundage.api.user.dto.UserDto;
+import com.soundage.api.user.entity.User;
 import com.soundage.api.user.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/admin/users")
@@ -28,4 +35,16 @@ public class AdminUserController {
         List<UserDto> users = userService.findAllForAdmin(search, role);
         return ResponseEntity.ok(ApiResponse.success("Users retrieved successfully", users));
     }
+
+    /** Enables/disables a user or changes their role. */
+    @PatchMapping("/{id}")
+    @RequiresAdmin
+    public ResponseEntity<ApiResponse<UserDto>> updateAccess(
+            @PathVariable UUID id,
+            @RequestBody UpdateUserAccessRequest request,
+            Authentication authentication) {
+        User admin = (User) authentication.getPrincipal();
+        UserDto user = userService.updateAccess(id, request.getEnabled(), request.getRole(), admin.getId());
+        return ResponseEntity.ok(ApiResponse.success("User updated successfully", user));
+    }
 }
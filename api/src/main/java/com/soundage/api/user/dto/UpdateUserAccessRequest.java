@@ -0,0 +1,16 @@
+package com.soundage.api.user.dto;
+
+import com.soundage.api.role.entity.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateUserAccessRequest {
+    private Boolean enabled;
+    private Role.RoleName role;
+}
@@ -18,4 +18,5 @@ public class UserDto {
     private String lastName;
     private String email;
     private Role.RoleName role;
+    private Boolean enabled;
 }
@@ -1,7 +1,10 @@
 package com.soundage.api.user.repository;
 
+import com.soundage.api.role.entity.Role;
 import com.soundage.api.user.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,6 +19,20 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     boolean existsByEmail(String email);
 
+    @Query("SELECT u.id FROM User u")
+    List<UUID> findAllIds();
+
+    @Query("SELECT u.id FROM User u WHERE u.enabled = false")
+    List<UUID> findDisabledIds();
+
+    @Query("SELECT u.id FROM User u WHERE u.role.name = :role")
+    List<UUID> findIdsByRole(@Param("role") Role.RoleName role);
+
+    /** Enabled users with this role, locked so that concurrent access changes see each other. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.role.name = :role AND u.enabled = true")
+    List<User> findEnabledByRoleForUpdate(@Param("role") Role.RoleName role);
+
     /** Search by name (first/last) or email; pass null or empty to skip search. */
     @Query("SELECT u FROM User u JOIN FETCH u.role r WHERE (:search IS NULL OR :search = '' OR LOWER(u.name) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')))")
     List<User> findAllForAdminSearch(@Param("search") String search);
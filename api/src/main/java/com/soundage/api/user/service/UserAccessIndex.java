@@ -0,0 +1,67 @@
+package com.soundage.api.user.service;
+
+import com.soundage.api.role.entity.Role;
+import com.soundage.api.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory copy of the user ids, the disabled users and the admins, reloaded
+ * every soundage.auth.access-index.refresh-ms. Lets principals built from
+ * token claims be checked without a query: tokens of disabled users are
+ * refused, an ADMIN role claim only holds while the user is still an admin,
+ * and ids the index does not know (deleted users, or users created since the
+ * last reload) are not trusted from claims alone.
+ */
+@Component
+@Slf4j
+public class UserAccessIndex {
+
+    private final UserRepository userRepository;
+    private volatile Snapshot snapshot;
+
+    public UserAccessIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public boolean isKnown(UUID userId) {
+        return current().known.contains(userId);
+    }
+
+    public boolean isDisabled(UUID userId) {
+        return current().disabled.contains(userId);
+    }
+
+    public boolean isAdmin(UUID userId) {
+        return current().admins.contains(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${soundage.auth.access-index.refresh-ms:30000}",
+            initialDelayString = "${soundage.auth.access-index.refresh-ms:30000}")
+    public void refresh() {
+        snapshot = new Snapshot(Set.copyOf(userRepository.findAllIds()),
+                Set.copyOf(userRepository.findDisabledIds()),
+                Set.copyOf(userRepository.findIdsByRole(Role.RoleName.ADMIN)));
+        log.debug("User access index: {} users, {} disabled, {} admins", snapshot.known.size(),
+                snapshot.disabled.size(), snapshot.admins.size());
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                if (snapshot == null)
+                    refresh();
+                s = snapshot;
+            }
+        }
+        return s;
+    }
+
+    private record Snapshot(Set<UUID> known, Set<UUID> disabled, Set<UUID> admins) {
+    }
+}
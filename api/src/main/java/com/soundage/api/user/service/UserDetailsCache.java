@@ -0,0 +1,132 @@
+package com.soundage.api.user.service;
+
+import com.soundage.api.user.entity.User;
+import com.soundage.api.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Users by email for the authenticated request path (JWT filter, token
+ * refresh), bounded by soundage.auth.user-cache.max-entries and reloaded
+ * after soundage.auth.user-cache.ttl-seconds. {@link UserService} evicts a
+ * user when it is created, enabled/disabled or changes role; the TTL bounds
+ * how long changes made on another node go unnoticed. Logins still read the
+ * database. Past the bound one inserting thread trims the cache to 90% of it,
+ * dropping stale entries and then the oldest loaded.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    /** Bumped on every eviction so that a load racing with an eviction is not cached. */
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserDetailsCache(UserRepository userRepository, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${soundage.auth.user-cache.max-entries:10000}") int maxEntries,
+            @Value("${soundage.auth.user-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.maxEntries = maxEntries;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.hits = meterRegistry.counter("soundage.auth.user-cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("soundage.auth.user-cache.requests", "result", "miss");
+        meterRegistry.gauge("soundage.auth.user-cache.size", entries, Map::size);
+    }
+
+    /**
+     * Returns the user with this email, loading it on a miss.
+     *
+     * @throws UsernameNotFoundException if there is no such user
+     */
+    public User get(String email) {
+        Entry entry = entries.get(email);
+        Instant now = Instant.now();
+        if (entry != null && entry.loadedAt.plus(ttl).isAfter(now)) {
+            hits.increment();
+            return entry.user;
+        }
+        misses.increment();
+        long generation = evictions.get();
+        User user = readOnlyTx.execute(status -> userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email)));
+        if (generation == evictions.get()) {
+            put(email, new Entry(user, now));
+        }
+        return user;
+    }
+
+    public void evict(String email) {
+        evictions.incrementAndGet();
+        entries.remove(email);
+    }
+
+    /**
+     * Evicts now and again once the current transaction commits, so a concurrent
+     * reader cannot re-cache the pre-commit version.
+     */
+    public void evictAfterCommit(String email) {
+        evict(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(email);
+                }
+            });
+        }
+    }
+
+    private void put(String email, Entry entry) {
+        entries.put(email, entry);
+        if (entries.size() > maxEntries)
+            trim(entry.loadedAt);
+    }
+
+    /** Trims to 90% of the bound so the scan is paid once per batch, not per insert. */
+    private void trim(Instant now) {
+        if (!trimming.compareAndSet(false, true))
+            return;
+        try {
+            Instant staleBefore = now.minus(ttl);
+            entries.values().removeIf(e -> !e.loadedAt.isAfter(staleBefore));
+            int excess = entries.size() - maxEntries * 9 / 10;
+            if (excess > 0) {
+                entries.entrySet().stream()
+                        .sorted(Comparator.comparing(e -> e.getValue().loadedAt))
+                        .limit(excess)
+                        .toList()
+                        .forEach(e -> entries.remove(e.getKey(), e.getValue()));
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private record Entry(User user, Instant loadedAt) {
+    }
+}
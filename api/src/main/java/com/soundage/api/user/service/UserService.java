@@ -1,5 +1,7 @@
 package com.soundage.api.user.service;
 
+import com.soundage.api.common.exception.UserAccessChangeException;
+import com.soundage.api.common.exception.UserNotFoundException;
 import com.soundage.api.role.entity.Role;
 import com.soundage.api.role.repository.RoleRepository;
 import com.soundage.api.user.dto.UserDto;
@@ -11,6 +13,8 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.UUID;
@@ -21,6 +25,8 @@ public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final UserAccessIndex userAccessIndex;
 
     @Override
     @Transactional(readOnly = true)
@@ -78,9 +84,52 @@ public class UserService implements UserDetailsService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        userDetailsCache.evictAfterCommit(email);
         return mapToDto(savedUser);
     }
 
+    /**
+     * Enables or disables a user and/or changes their role; null fields are left
+     * unchanged. An admin cannot disable or demote themselves, nor the last
+     * enabled admin.
+     */
+    @Transactional
+    public UserDto updateAccess(UUID id, Boolean enabled, Role.RoleName roleName, UUID actingUserId) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException(id));
+        boolean removesAdmin = user.getRole().getName() == Role.RoleName.ADMIN && Boolean.TRUE.equals(user.getEnabled())
+                && (Boolean.FALSE.equals(enabled) || (roleName != null && roleName != Role.RoleName.ADMIN));
+        if (removesAdmin) {
+            if (id.equals(actingUserId))
+                throw new UserAccessChangeException("You cannot disable or demote yourself");
+            if (userRepository.findEnabledByRoleForUpdate(Role.RoleName.ADMIN).size() <= 1)
+                throw new UserAccessChangeException("Cannot disable or demote the last admin");
+        }
+        if (enabled != null)
+            user.setEnabled(enabled);
+        if (roleName != null && user.getRole().getName() != roleName) {
+            Role role = roleRepository.findByName(roleName)
+                    .orElseThrow(() -> new RuntimeException("Role not found: " + roleName));
+            user.setRole(role);
+        }
+        userRepository.save(user);
+        userDetailsCache.evictAfterCommit(user.getEmail());
+        refreshAccessIndexAfterCommit();
+        return mapToDto(user);
+    }
+
+    /** Principals built from token claims must see the change on this node without waiting for the reload. */
+    private void refreshAccessIndexAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userAccessIndex.refresh();
+                }
+            });
+        }
+    }
+
     private UserDto mapToDto(User user) {
         return UserDto.builder()
                 .id(user.getId())
@@ -88,6 +137,7 @@ public class UserService implements UserDetailsService {
                 .lastName(user.getLastName())
                 .email(user.getEmail())
                 .role(user.getRole().getName())
+                .enabled(user.getEnabled())
                 .build();
     }
 }
@@ -0,0 +1,24 @@
+-- Vote timeline: new and updated responses per poll and time bucket (UTC), maintained
+-- with the vote tallies so dashboards never scan responses
+CREATE TABLE poll_vote_rollups (
+    poll_id UUID NOT NULL,
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    new_responses BIGINT NOT NULL DEFAULT 0,
+    updated_responses BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (poll_id, granularity, bucket_start),
+    CONSTRAINT fk_poll_vote_rollups_poll FOREIGN KEY (poll_id) REFERENCES polls(id) ON DELETE CASCADE,
+    CONSTRAINT chk_poll_vote_rollups_granularity CHECK (granularity IN ('minute', 'hour', 'day'))
+);
+
+-- Backfill new responses from existing rows (past updates are not recorded anywhere)
+INSERT INTO poll_vote_rollups (poll_id, granularity, bucket_start, new_responses)
+SELECT r.poll_id, g.granularity,
+       date_trunc(g.granularity, r.created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC',
+       COUNT(*)
+FROM responses r
+CROSS JOIN (VALUES ('minute'), ('hour'), ('day')) AS g(granularity)
+GROUP BY r.poll_id, g.granularity, date_trunc(g.granularity, r.created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC';
+
+-- Retention purge of fine-grained buckets
+CREATE INDEX IF NOT EXISTS idx_poll_vote_rollups_granularity_bucket ON poll_vote_rollups(granularity, bucket_start);
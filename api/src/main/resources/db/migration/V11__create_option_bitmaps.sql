@@ -0,0 +1,23 @@
+-- Per-option response bitmaps for segmented results: each response gets a numeric
+-- ordinal (seq) and each option a compressed bitmap of the ordinals that selected it
+
+ALTER TABLE responses ADD COLUMN seq BIGINT GENERATED BY DEFAULT AS IDENTITY;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_responses_seq ON responses(seq);
+
+-- Bumped by every vote that changes a poll's answers; tells whether a persisted
+-- bitmap is still current
+ALTER TABLE poll_tallies ADD COLUMN vote_version BIGINT NOT NULL DEFAULT 0;
+
+-- Persisted bitmaps (serialized Roaring64NavigableMap) so cold polls are not rebuilt
+-- from answers; only used when vote_version matches poll_tallies.vote_version
+CREATE TABLE poll_option_bitmaps (
+    poll_id UUID NOT NULL,
+    option_id UUID NOT NULL,
+    vote_version BIGINT NOT NULL,
+    bitmap BYTEA NOT NULL,
+    built_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (poll_id, option_id),
+    CONSTRAINT fk_poll_option_bitmaps_poll FOREIGN KEY (poll_id) REFERENCES polls(id) ON DELETE CASCADE,
+    CONSTRAINT fk_poll_option_bitmaps_option FOREIGN KEY (option_id) REFERENCES options(id) ON DELETE CASCADE
+);
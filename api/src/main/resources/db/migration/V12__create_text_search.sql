@@ -0,0 +1,35 @@
+-- Full-text search over text answers. The 'simple' configuration (no stemming, no
+-- stop words) keeps search language-neutral; the vector is maintained by Postgres
+-- on every insert/update of text_value
+ALTER TABLE answers ADD COLUMN text_search TSVECTOR
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(text_value, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_answers_text_search ON answers USING GIN (text_search);
+
+-- Term tallies: text answers of a question containing each word (lowercased words
+-- of 3 to 40 characters, first 100 distinct words per answer), maintained with the
+-- other vote tallies; see TextTerms
+CREATE TABLE text_term_tallies (
+    question_id UUID NOT NULL,
+    term VARCHAR(40) NOT NULL,
+    answer_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (question_id, term),
+    CONSTRAINT fk_text_term_tallies_question FOREIGN KEY (question_id) REFERENCES questions(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_text_term_tallies_top ON text_term_tallies(question_id, answer_count DESC);
+
+-- Backfill from existing text answers with the same tokenization as TextTerms
+INSERT INTO text_term_tallies (question_id, term, answer_count)
+SELECT t.question_id, t.term, COUNT(*)
+FROM (
+    SELECT a.id, a.question_id, w.term,
+           ROW_NUMBER() OVER (PARTITION BY a.id ORDER BY MIN(w.pos)) AS rn
+    FROM answers a
+    JOIN questions q ON q.id = a.question_id AND q.type = 'text'
+    CROSS JOIN LATERAL regexp_split_to_table(lower(a.text_value), '[^[:alnum:]]+') WITH ORDINALITY AS w(term, pos)
+    WHERE a.text_value IS NOT NULL AND length(w.term) BETWEEN 3 AND 40
+    GROUP BY a.id, a.question_id, w.term
+) t
+WHERE t.rn <= 100
+GROUP BY t.question_id, t.term;
@@ -0,0 +1,23 @@
+-- Final results of closed polls: gzip-compressed JSON written once by the
+-- finalization job and served instead of recomputing. A snapshot is only used while
+-- vote_version matches poll_tallies.vote_version (a late vote makes it stale)
+CREATE TABLE poll_result_snapshots (
+    poll_id UUID PRIMARY KEY,
+    vote_version BIGINT NOT NULL,
+    results BYTEA NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_poll_result_snapshots_poll FOREIGN KEY (poll_id) REFERENCES polls(id) ON DELETE CASCADE
+);
+
+-- Voters ('voters') and text answers (section = question id) of a snapshot, in
+-- response order, as compressed chunks of a fixed number of items
+CREATE TABLE poll_result_snapshot_chunks (
+    poll_id UUID NOT NULL,
+    section VARCHAR(36) NOT NULL,
+    chunk_no INT NOT NULL,
+    item_count INT NOT NULL,
+    items BYTEA NOT NULL,
+    PRIMARY KEY (poll_id, section, chunk_no),
+    CONSTRAINT fk_poll_result_snapshot_chunks_snapshot FOREIGN KEY (poll_id)
+        REFERENCES poll_result_snapshots(poll_id) ON DELETE CASCADE
+);
@@ -0,0 +1,27 @@
+-- Text term tallies no longer count stop words and keep at most 20 distinct terms per
+-- answer (was 100, stop words included), so a text answer locks fewer shared rows in the
+-- vote transaction. Rebuilt with the same tokenization as TextTerms.
+DELETE FROM text_term_tallies;
+
+INSERT INTO text_term_tallies (question_id, term, answer_count)
+SELECT t.question_id, t.term, COUNT(*)
+FROM (
+    SELECT a.id, a.question_id, w.term,
+           ROW_NUMBER() OVER (PARTITION BY a.id ORDER BY MIN(w.pos)) AS rn
+    FROM answers a
+    JOIN questions q ON q.id = a.question_id AND q.type = 'text'
+    CROSS JOIN LATERAL regexp_split_to_table(lower(a.text_value), '[^[:alnum:]]+') WITH ORDINALITY AS w(term, pos)
+    WHERE a.text_value IS NOT NULL AND length(w.term) BETWEEN 3 AND 40
+      AND w.term <> ALL (ARRAY[
+        'the', 'and', 'for', 'are', 'but', 'not', 'you', 'all', 'any', 'can', 'had', 'her',
+        'was', 'one', 'our', 'out', 'has', 'have', 'his', 'how', 'its', 'she', 'they', 'them',
+        'their', 'this', 'that', 'these', 'those', 'with', 'from', 'what', 'when', 'where', 'which', 'who',
+        'will', 'would', 'there', 'been', 'were', 'than', 'then', 'into', 'more', 'some', 'such', 'only',
+        'very', 'also', 'just', 'about', 'your', 'because', 'should', 'could', 'les', 'des', 'une', 'est',
+        'pas', 'que', 'qui', 'dans', 'pour', 'par', 'sur', 'avec', 'son', 'ses', 'mais', 'ont',
+        'aux', 'nous', 'vous', 'elle', 'ils', 'elles', 'cette', 'ces', 'sont', 'tout', 'tous', 'plus',
+        'comme', 'leur', 'leurs'])
+    GROUP BY a.id, a.question_id, w.term
+) t
+WHERE t.rn <= 20
+GROUP BY t.question_id, t.term;
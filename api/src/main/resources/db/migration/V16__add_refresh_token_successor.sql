@@ -0,0 +1,4 @@
+-- Token issued when a refresh token was used (issued at used_at), so that a second use within
+-- soundage.auth.refresh-tokens.reuse-grace-seconds, e.g. two tabs refreshing at once, is answered
+-- with the same successor instead of revoking the family.
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS successor_jti UUID;
@@ -0,0 +1,65 @@
+-- Vote tallies: counters maintained in the same transaction as each vote so that
+-- results are read from here instead of scanning answers
+
+-- Poll tallies: number of responses per poll
+CREATE TABLE poll_tallies (
+    poll_id UUID PRIMARY KEY,
+    total_responses BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_poll_tallies_poll FOREIGN KEY (poll_id) REFERENCES polls(id) ON DELETE CASCADE
+);
+
+-- Question tallies: responses that answered the question, rating count and sum
+CREATE TABLE question_tallies (
+    question_id UUID PRIMARY KEY,
+    response_count BIGINT NOT NULL DEFAULT 0,
+    rating_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum NUMERIC(30, 4) NOT NULL DEFAULT 0,
+    CONSTRAINT fk_question_tallies_question FOREIGN KEY (question_id) REFERENCES questions(id) ON DELETE CASCADE
+);
+
+-- Option tallies: times each option was selected (ranking entries excluded)
+CREATE TABLE option_tallies (
+    option_id UUID PRIMARY KEY,
+    question_id UUID NOT NULL,
+    selection_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_option_tallies_option FOREIGN KEY (option_id) REFERENCES options(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_option_tallies_question ON option_tallies(question_id);
+
+-- Rating tallies: answers per rating value
+CREATE TABLE rating_tallies (
+    question_id UUID NOT NULL,
+    value NUMERIC(20, 4) NOT NULL,
+    answer_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (question_id, value),
+    CONSTRAINT fk_rating_tallies_question FOREIGN KEY (question_id) REFERENCES questions(id) ON DELETE CASCADE
+);
+
+-- Backfill from existing votes (a rating answered with a numeric option counts as that option's value)
+INSERT INTO poll_tallies (poll_id, total_responses)
+SELECT r.poll_id, COUNT(*) FROM responses r GROUP BY r.poll_id;
+
+INSERT INTO question_tallies (question_id, response_count, rating_count, rating_sum)
+SELECT a.question_id,
+       COUNT(DISTINCT a.response_id),
+       COUNT(COALESCE(a.numeric_value, o.numeric_value)) FILTER (WHERE q.type = 'rating'),
+       COALESCE(SUM(COALESCE(a.numeric_value, o.numeric_value)) FILTER (WHERE q.type = 'rating'), 0)
+FROM answers a
+JOIN questions q ON q.id = a.question_id
+LEFT JOIN options o ON o.id = a.option_id
+GROUP BY a.question_id;
+
+INSERT INTO option_tallies (option_id, question_id, selection_count)
+SELECT a.option_id, a.question_id, COUNT(*)
+FROM answers a
+WHERE a.option_id IS NOT NULL AND a.position IS NULL
+GROUP BY a.option_id, a.question_id;
+
+INSERT INTO rating_tallies (question_id, value, answer_count)
+SELECT a.question_id, COALESCE(a.numeric_value, o.numeric_value), COUNT(*)
+FROM answers a
+JOIN questions q ON q.id = a.question_id AND q.type = 'rating'
+LEFT JOIN options o ON o.id = a.option_id
+WHERE COALESCE(a.numeric_value, o.numeric_value) IS NOT NULL
+GROUP BY a.question_id, COALESCE(a.numeric_value, o.numeric_value);
@@ -0,0 +1,2 @@
+-- Keyset pagination of voters and text answers: responses of a poll ordered by (created_at, id)
+CREATE INDEX IF NOT EXISTS idx_responses_poll_created ON responses(poll_id, created_at, id);
@@ -0,0 +1,41 @@
+-- Ranking tallies, maintained with the other vote tallies (see V6)
+
+-- Rankings that put an option at a position (1 = best)
+CREATE TABLE ranking_position_tallies (
+    question_id UUID NOT NULL,
+    option_id UUID NOT NULL,
+    position INTEGER NOT NULL,
+    ranking_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (question_id, option_id, position),
+    CONSTRAINT fk_ranking_position_tallies_question FOREIGN KEY (question_id) REFERENCES questions(id) ON DELETE CASCADE,
+    CONSTRAINT fk_ranking_position_tallies_option FOREIGN KEY (option_id) REFERENCES options(id) ON DELETE CASCADE
+);
+
+-- Rankings that put the winner option above the loser option (both ranked by the voter)
+CREATE TABLE ranking_pair_tallies (
+    question_id UUID NOT NULL,
+    winner_option_id UUID NOT NULL,
+    loser_option_id UUID NOT NULL,
+    pair_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (question_id, winner_option_id, loser_option_id),
+    CONSTRAINT fk_ranking_pair_tallies_question FOREIGN KEY (question_id) REFERENCES questions(id) ON DELETE CASCADE,
+    CONSTRAINT fk_ranking_pair_tallies_winner FOREIGN KEY (winner_option_id) REFERENCES options(id) ON DELETE CASCADE,
+    CONSTRAINT fk_ranking_pair_tallies_loser FOREIGN KEY (loser_option_id) REFERENCES options(id) ON DELETE CASCADE
+);
+
+-- Backfill from existing rankings
+INSERT INTO ranking_position_tallies (question_id, option_id, position, ranking_count)
+SELECT a.question_id, a.option_id, a.position, COUNT(*)
+FROM answers a
+JOIN questions q ON q.id = a.question_id AND q.type = 'ranking'
+WHERE a.option_id IS NOT NULL AND a.position IS NOT NULL
+GROUP BY a.question_id, a.option_id, a.position;
+
+INSERT INTO ranking_pair_tallies (question_id, winner_option_id, loser_option_id, pair_count)
+SELECT w.question_id, w.option_id, l.option_id, COUNT(*)
+FROM answers w
+JOIN questions q ON q.id = w.question_id AND q.type = 'ranking'
+JOIN answers l ON l.response_id = w.response_id AND l.question_id = w.question_id
+              AND l.position > w.position AND l.option_id IS NOT NULL
+WHERE w.option_id IS NOT NULL AND w.position IS NOT NULL
+GROUP BY w.question_id, w.option_id, l.option_id;
@@ -0,0 +1,15 @@
+-- Sum of squared ratings per question: with rating_count and rating_sum it gives the
+-- variance; kept as an exact additive sum so concurrent vote transactions can update it
+ALTER TABLE question_tallies ADD COLUMN rating_sum_squares NUMERIC(40, 8) NOT NULL DEFAULT 0;
+
+UPDATE question_tallies t
+SET rating_sum_squares = s.sum_squares
+FROM (
+    SELECT a.question_id, SUM(COALESCE(a.numeric_value, o.numeric_value) * COALESCE(a.numeric_value, o.numeric_value)) AS sum_squares
+    FROM answers a
+    JOIN questions q ON q.id = a.question_id AND q.type = 'rating'
+    LEFT JOIN options o ON o.id = a.option_id
+    WHERE COALESCE(a.numeric_value, o.numeric_value) IS NOT NULL
+    GROUP BY a.question_id
+) s
+WHERE s.question_id = t.question_id;
@@ -0,0 +1,115 @@
+package com.soundage.api.auth.service;
+
+import com.soundage.api.auth.repository.RefreshTokenRepository;
+import com.soundage.api.config.security.JwtService;
+import com.soundage.api.config.security.VerifiedToken;
+import com.soundage.api.user.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenStoreTest {
+
+    private final RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+    private final JwtService jwtService = mock(JwtService.class);
+    private final User user = User.builder().id(UUID.randomUUID()).email("user@example.com").build();
+    private final UUID familyId = UUID.randomUUID();
+
+    @Test
+    void rotationUsesTheTokenAndIssuesTheNextOfTheFamily() {
+        VerifiedToken token = token();
+        when(repository.markUsed(eq(token.tokenId()), any(), any())).thenReturn(true);
+        when(jwtService.generateRefreshToken(eq(user), any(), eq(familyId), any())).thenReturn("next");
+
+        assertThat(store(10).rotate(token, user)).isEqualTo("next");
+        verify(repository).insert(any(), eq(familyId), eq(user.getId()), any());
+        verify(repository, never()).deleteFamily(any());
+    }
+
+    @Test
+    void concurrentRefreshWithinGraceGetsTheSameSuccessor() {
+        VerifiedToken token = token();
+        UUID successorId = UUID.randomUUID();
+        Instant usedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        // Another request (or node) used the token first
+        when(repository.markUsed(eq(token.tokenId()), any(), any())).thenReturn(false);
+        when(repository.findSuccessor(eq(token.tokenId()), any()))
+                .thenReturn(new RefreshTokenRepository.Successor(successorId, usedAt));
+        when(jwtService.generateRefreshToken(user, successorId, familyId, usedAt)).thenReturn("successor");
+
+        assertThat(store(10).rotate(token, user)).isEqualTo("successor");
+        verify(repository, never()).insert(any(), any(), any(), any());
+        verify(repository, never()).deleteFamily(any());
+    }
+
+    @Test
+    void secondUseOnTheSameNodeWithinGraceGetsTheSameSuccessor() {
+        VerifiedToken token = token();
+        when(repository.markUsed(eq(token.tokenId()), any(), any())).thenReturn(true);
+        when(repository.findSuccessor(eq(token.tokenId()), any()))
+                .thenReturn(new RefreshTokenRepository.Successor(UUID.randomUUID(), Instant.now()));
+        RefreshTokenStore store = store(10);
+
+        store.rotate(token, user);
+        store.rotate(token, user);
+
+        verify(repository).markUsed(eq(token.tokenId()), any(), any());
+        verify(repository).findSuccessor(eq(token.tokenId()), any());
+        verify(repository, never()).deleteFamily(any());
+    }
+
+    @Test
+    void reuseAfterGraceRevokesTheFamily() {
+        VerifiedToken token = token();
+        when(repository.markUsed(eq(token.tokenId()), any(), any())).thenReturn(false);
+        when(repository.findSuccessor(eq(token.tokenId()), any())).thenReturn(null);
+        RefreshTokenStore store = store(10);
+
+        assertThat(store.rotate(token, user)).isNull();
+        verify(repository).deleteFamily(familyId);
+
+        // Every other token of the family is refused without touching the database
+        VerifiedToken sibling = token();
+        assertThat(store.rotate(sibling, user)).isNull();
+        verify(repository, never()).markUsed(eq(sibling.tokenId()), any(), any());
+    }
+
+    @Test
+    void zeroGraceRevokesOnAnyReuse() {
+        VerifiedToken token = token();
+        when(repository.markUsed(eq(token.tokenId()), any(), any())).thenReturn(false);
+
+        assertThat(store(0).rotate(token, user)).isNull();
+        verify(repository, never()).findSuccessor(any(), any());
+        verify(repository).deleteFamily(familyId);
+    }
+
+    @Test
+    void tokenIssuedBeforeRotationIsRefused() {
+        VerifiedToken legacy = new VerifiedToken(user.getEmail(), JwtService.TOKEN_TYPE_REFRESH,
+                Instant.now().plusSeconds(3600), null, null, null, null, null);
+
+        assertThat(store(10).rotate(legacy, user)).isNull();
+        verify(repository, never()).markUsed(any(), any(), any());
+    }
+
+    private RefreshTokenStore store(long graceSeconds) {
+        return new RefreshTokenStore(repository, jwtService, new SimpleMeterRegistry(), graceSeconds);
+    }
+
+    private VerifiedToken token() {
+        return new VerifiedToken(user.getEmail(), JwtService.TOKEN_TYPE_REFRESH, Instant.now().plusSeconds(3600),
+                null, null, null, UUID.randomUUID(), familyId);
+    }
+}
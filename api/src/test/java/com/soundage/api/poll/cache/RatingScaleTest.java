@@ -0,0 +1,38 @@
+package com.soundage.api.poll.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RatingScaleTest {
+
+    @Test
+    void readsTheScaleFromSettings() {
+        RatingScale scale = RatingScale.fromSettings(Map.of("min", 0, "max", "10", "step", 0.5));
+
+        assertThat(scale).isEqualTo(new RatingScale(0, 10, 0.5));
+        assertThat(scale.size()).isEqualTo(21);
+        assertThat(scale.contains(7.5)).isTrue();
+        assertThat(scale.contains(7.25)).isFalse();
+        assertThat(scale.indexOf(11)).isEqualTo(20);
+        assertThat(scale.valueAt(3)).isEqualTo(1.5);
+    }
+
+    @Test
+    void fallsBackToTheDefaultForAnInvalidScale() {
+        assertThat(RatingScale.fromSettings(null)).isEqualTo(RatingScale.DEFAULT);
+        assertThat(RatingScale.fromSettings(Map.of("min", 5, "max", 1))).isEqualTo(RatingScale.DEFAULT);
+        assertThat(RatingScale.fromSettings(Map.of("step", 0))).isEqualTo(RatingScale.DEFAULT);
+        assertThat(RatingScale.fromSettings(Map.of("max", Double.POSITIVE_INFINITY))).isEqualTo(RatingScale.DEFAULT);
+    }
+
+    @Test
+    void rejectsAScaleWhoseSizeWouldOverflow() {
+        RatingScale scale = RatingScale.fromSettings(Map.of("min", 0, "max", 1e12, "step", 0.001));
+
+        assertThat(scale).isEqualTo(RatingScale.DEFAULT);
+        assertThat(new RatingScale(0, 1e12, 0.001).size()).isEqualTo(RatingScale.MAX_VALUES);
+    }
+}
@@ -0,0 +1,131 @@
+package com.soundage.api.poll.cache;
+
+import com.soundage.api.common.exception.InvalidVoteException;
+import com.soundage.api.poll.dto.AnswerInputDto;
+import com.soundage.api.poll.dto.RankingEntryDto;
+import com.soundage.api.poll.entity.Option;
+import com.soundage.api.poll.entity.Question;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VoteValidatorTest {
+
+    private final Question choice = question(Question.QuestionType.single_choice, true, 3, null);
+    private final Question rating = question(Question.QuestionType.rating, false, 0,
+            Map.of("min", 1, "max", 5, "step", 0.5));
+    private final Question ranking = question(Question.QuestionType.ranking, false, 3, null);
+    private final VoteValidator validator = VoteValidator.compile(List.of(choice, rating, ranking));
+
+    @Test
+    void acceptsACompleteVote() {
+        assertThatCode(() -> validator.validate(List.of(
+                pick(choice, 0),
+                rate(rating, "3.5"),
+                rank(ranking, 2, 0, 1))))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectsAMissingRequiredAnswer() {
+        assertThatThrownBy(() -> validator.validate(List.of(rate(rating, "2"))))
+                .isInstanceOf(InvalidVoteException.class)
+                .hasMessageContaining("is required");
+    }
+
+    @Test
+    void rejectsAQuestionAnsweredTwice() {
+        assertThatThrownBy(() -> validator.validate(List.of(pick(choice, 0), pick(choice, 1))))
+                .isInstanceOf(InvalidVoteException.class)
+                .hasMessageContaining("more than once");
+    }
+
+    @Test
+    void rejectsAnEmptyEntryFollowedByAnAnswerToTheSameQuestion() {
+        AnswerInputDto empty = AnswerInputDto.builder().questionId(choice.getId()).build();
+
+        assertThatThrownBy(() -> validator.validate(List.of(empty, pick(choice, 0))))
+                .isInstanceOf(InvalidVoteException.class)
+                .hasMessageContaining("more than once");
+    }
+
+    @Test
+    void rejectsARatingOffTheScale() {
+        assertThatThrownBy(() -> validator.validate(List.of(pick(choice, 0), rate(rating, "3.25"))))
+                .isInstanceOf(InvalidVoteException.class)
+                .hasMessageContaining("steps of 0.5");
+        assertThatThrownBy(() -> validator.validate(List.of(pick(choice, 0), rate(rating, "6"))))
+                .isInstanceOf(InvalidVoteException.class)
+                .hasMessageContaining("between 1 and 5");
+    }
+
+    @Test
+    void rejectsAnOptionOfAnotherQuestion() {
+        AnswerInputDto foreign = AnswerInputDto.builder()
+                .questionId(choice.getId())
+                .optionId(ranking.getOptions().get(0).getId())
+                .build();
+
+        assertThatThrownBy(() -> validator.validate(List.of(foreign)))
+                .isInstanceOf(InvalidVoteException.class)
+                .hasMessageContaining("does not belong");
+    }
+
+    @Test
+    void rejectsARankingWithARepeatedPosition() {
+        AnswerInputDto repeated = AnswerInputDto.builder()
+                .questionId(ranking.getId())
+                .ranking(List.of(
+                        new RankingEntryDto(ranking.getOptions().get(0).getId(), 1),
+                        new RankingEntryDto(ranking.getOptions().get(1).getId(), 1)))
+                .build();
+
+        assertThatThrownBy(() -> validator.validate(List.of(pick(choice, 0), repeated)))
+                .isInstanceOf(InvalidVoteException.class)
+                .hasMessageContaining("each position");
+    }
+
+    private static Question question(Question.QuestionType type, boolean required, int options,
+            Map<String, Object> settings) {
+        Question question = Question.builder()
+                .id(UUID.randomUUID())
+                .type(type)
+                .title(type.name())
+                .isRequired(required)
+                .settings(settings)
+                .build();
+        List<Option> list = new ArrayList<>();
+        for (int i = 0; i < options; i++) {
+            list.add(Option.builder().id(UUID.randomUUID()).question(question).sortOrder(i).build());
+        }
+        question.setOptions(list);
+        return question;
+    }
+
+    private static AnswerInputDto pick(Question question, int option) {
+        return AnswerInputDto.builder()
+                .questionId(question.getId())
+                .optionId(question.getOptions().get(option).getId())
+                .build();
+    }
+
+    private static AnswerInputDto rate(Question question, String value) {
+        return AnswerInputDto.builder().questionId(question.getId()).numericValue(new BigDecimal(value)).build();
+    }
+
+    /** Ranks the options in the given order (first = position 1). */
+    private static AnswerInputDto rank(Question question, int... order) {
+        List<RankingEntryDto> entries = new ArrayList<>();
+        for (int i = 0; i < order.length; i++) {
+            entries.add(new RankingEntryDto(question.getOptions().get(order[i]).getId(), i + 1));
+        }
+        return AnswerInputDto.builder().questionId(question.getId()).ranking(entries).build();
+    }
+}
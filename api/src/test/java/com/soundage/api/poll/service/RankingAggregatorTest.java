@@ -0,0 +1,66 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.repository.PollAggregates;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankingAggregatorTest {
+
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+    private final UUID c = UUID.randomUUID();
+
+    @Test
+    void scoresTalliedRankings() {
+        PollAggregates.QuestionAggregate question = new PollAggregates.QuestionAggregate();
+        // Two voters ranked a > b > c, one ranked b > a (c unranked)
+        question.addRankingPosition(a, 1, 2);
+        question.addRankingPosition(b, 2, 2);
+        question.addRankingPosition(c, 3, 2);
+        question.addRankingPosition(b, 1, 1);
+        question.addRankingPosition(a, 2, 1);
+        question.addRankingPair(a, b, 2);
+        question.addRankingPair(a, c, 2);
+        question.addRankingPair(b, c, 2);
+        question.addRankingPair(b, a, 1);
+
+        RankingAggregator ranking = RankingAggregator.fromTallies(List.of(a, b, c), question);
+
+        assertThat(ranking.bordaScore(0)).isEqualTo(2 * 2 + 1);
+        assertThat(ranking.bordaScore(1)).isEqualTo(2 + 2);
+        assertThat(ranking.rankedCount(2)).isEqualTo(2);
+        assertThat(ranking.meanPosition(0)).isEqualTo(4.0 / 3);
+        assertThat(ranking.medianPosition(1)).isEqualTo(2.0);
+        assertThat(ranking.preferred(0, 1)).isEqualTo(2);
+        assertThat(ranking.preferred(1, 0)).isEqualTo(1);
+    }
+
+    @Test
+    void keepsCountsBeyondIntRange() {
+        long many = Integer.MAX_VALUE + 10L;
+        PollAggregates.QuestionAggregate question = new PollAggregates.QuestionAggregate();
+        question.addRankingPosition(a, 1, many);
+        question.addRankingPair(a, b, many);
+
+        RankingAggregator ranking = RankingAggregator.fromTallies(List.of(a, b), question);
+
+        assertThat(ranking.positionCount(0, 1)).isEqualTo(many);
+        assertThat(ranking.preferred(0, 1)).isEqualTo(many);
+    }
+
+    @Test
+    void ignoresOptionsNoLongerInTheQuestion() {
+        PollAggregates.QuestionAggregate question = new PollAggregates.QuestionAggregate();
+        question.addRankingPosition(UUID.randomUUID(), 1, 5);
+        question.addRankingPosition(a, 2, 1);
+
+        RankingAggregator ranking = RankingAggregator.fromTallies(List.of(a, b), question);
+
+        assertThat(ranking.rankedCount(0)).isEqualTo(1);
+        assertThat(ranking.rankedCount(1)).isZero();
+    }
+}
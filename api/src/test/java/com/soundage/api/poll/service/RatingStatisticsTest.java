@@ -0,0 +1,58 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.cache.RatingScale;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RatingStatisticsTest {
+
+    @Test
+    void momentsAndQuantilesFromTallies() {
+        Map<BigDecimal, Long> counts = new TreeMap<>();
+        for (int v = 1; v <= 5; v++)
+            counts.put(BigDecimal.valueOf(v), 1L);
+
+        RatingStatistics stats = RatingStatistics.fromTallies(RatingScale.DEFAULT, 5, BigDecimal.valueOf(15),
+                BigDecimal.valueOf(55), counts);
+
+        assertThat(stats.getCount()).isEqualTo(5);
+        assertThat(stats.getMean()).isEqualTo(3.0);
+        assertThat(stats.getVariance()).isEqualTo(2.5);
+        assertThat(stats.quantile(0.5)).isEqualTo(3.0);
+        assertThat(stats.quantile(0.9)).isCloseTo(4.6, within(1e-9));
+        assertThat(stats.distribution()).hasSize(5).allSatisfy(b -> assertThat(b.getPercentage()).isEqualTo(20.0));
+    }
+
+    @Test
+    void noRatings() {
+        RatingStatistics stats = RatingStatistics.fromTallies(RatingScale.DEFAULT, 0, BigDecimal.ZERO,
+                BigDecimal.ZERO, Map.of());
+
+        assertThat(stats.averageRating()).isNull();
+        assertThat(stats.quantile(0.5)).isNaN();
+        assertThat(stats.getVariance()).isZero();
+    }
+
+    @Test
+    void fineStepOnAWideRangeIsBinnedCoarsely() {
+        RatingScale scale = new RatingScale(0, 1000, 0.001);
+        Map<BigDecimal, Long> counts = new TreeMap<>();
+        counts.put(new BigDecimal("0.5"), 1L);
+        counts.put(new BigDecimal("999.999"), 2L);
+        counts.put(new BigDecimal("1000"), 1L);
+
+        RatingStatistics stats = RatingStatistics.fromTallies(scale, 4, new BigDecimal("3000.499"),
+                new BigDecimal("2999998.250001"), counts);
+
+        assertThat(stats.getScale().size()).isLessThan(scale.size());
+        assertThat(stats.distribution()).hasSize(stats.getScale().size());
+        assertThat(stats.quantile(0)).isCloseTo(0.5, within(0.1));
+        assertThat(stats.quantile(1)).isCloseTo(1000, within(0.1));
+    }
+}
@@ -0,0 +1,109 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.cache.CompiledPoll;
+import com.soundage.api.poll.entity.Answer;
+import com.soundage.api.poll.entity.Option;
+import com.soundage.api.poll.entity.Poll;
+import com.soundage.api.poll.entity.Question;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class TallyDeltaTest {
+
+    private final Question ranking = Question.builder()
+            .id(UUID.randomUUID())
+            .type(Question.QuestionType.ranking)
+            .title("Rank")
+            .build();
+    private final Option a = option(ranking);
+    private final Option b = option(ranking);
+    private final Option c = option(ranking);
+    private final CompiledPoll poll = compile(ranking);
+
+    @Test
+    void firstRankingCountsEveryPositionAndPair() {
+        TallyDelta delta = write(List.of(), ranked(a, b, c), true);
+
+        assertThat(delta.getRankingPositions()).containsOnly(
+                entry(position(a, 1), 1L), entry(position(b, 2), 1L), entry(position(c, 3), 1L));
+        assertThat(delta.getRankingPairs()).containsOnly(
+                entry(pair(a, b), 1L), entry(pair(a, c), 1L), entry(pair(b, c), 1L));
+    }
+
+    @Test
+    void resubmitWithSwappedRankingMovesPositionsAndPairs() {
+        List<Answer> stored = withIds(ranked(a, b, c));
+
+        TallyDelta delta = write(stored, ranked(b, a, c), false);
+
+        assertThat(delta.getRankingPositions()).containsOnly(
+                entry(position(a, 1), -1L), entry(position(b, 2), -1L),
+                entry(position(b, 1), 1L), entry(position(a, 2), 1L));
+        assertThat(delta.getRankingPairs()).containsOnly(entry(pair(a, b), -1L), entry(pair(b, a), 1L));
+        assertThat(delta.getVotes()).containsOnly(entry(poll.getId(), 1L));
+        assertThat(delta.getResponses()).isEmpty();
+    }
+
+    @Test
+    void unchangedResubmissionRecordsNothing() {
+        List<Answer> stored = withIds(ranked(a, b, c));
+
+        TallyDelta delta = write(stored, ranked(a, b, c), false);
+
+        assertThat(delta.isEmpty()).isTrue();
+    }
+
+    /** Does what VoteWriter does with the stored and incoming answers of one response. */
+    private TallyDelta write(List<Answer> stored, List<Answer> incoming, boolean inserted) {
+        List<AnswerKey> before = stored.stream().map(AnswerKey::of).toList();
+        AnswerDiff diff = AnswerDiff.compute(stored, incoming);
+        TallyDelta delta = new TallyDelta();
+        delta.record(poll, inserted, 1, diff, before, incoming.stream().map(AnswerKey::of).toList(), Instant.now());
+        return delta;
+    }
+
+    private List<Answer> ranked(Option... order) {
+        List<Answer> answers = new ArrayList<>();
+        for (int i = 0; i < order.length; i++) {
+            answers.add(Answer.builder().question(ranking).option(order[i]).position(i + 1).build());
+        }
+        return answers;
+    }
+
+    private static List<Answer> withIds(List<Answer> answers) {
+        answers.forEach(answer -> answer.setId(UUID.randomUUID()));
+        return answers;
+    }
+
+    private TallyDelta.RankingPosition position(Option option, int position) {
+        return new TallyDelta.RankingPosition(ranking.getId(), option.getId(), position);
+    }
+
+    private TallyDelta.RankingPair pair(Option winner, Option loser) {
+        return new TallyDelta.RankingPair(ranking.getId(), winner.getId(), loser.getId());
+    }
+
+    private static Option option(Question question) {
+        Option option = Option.builder().id(UUID.randomUUID()).question(question).build();
+        question.getOptions().add(option);
+        return option;
+    }
+
+    private static CompiledPoll compile(Question question) {
+        Poll poll = Poll.builder()
+                .id(UUID.randomUUID())
+                .title("Poll")
+                .settings(Map.of())
+                .questions(List.of(question))
+                .build();
+        return CompiledPoll.compile(poll);
+    }
+}
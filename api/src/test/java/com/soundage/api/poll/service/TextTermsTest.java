@@ -0,0 +1,36 @@
+package com.soundage.api.poll.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextTermsTest {
+
+    @Test
+    void lowercasedDistinctTermsInOrderWithoutStopWords() {
+        assertThat(TextTerms.of("The app is great, and the APP's support is GREAT too!"))
+                .containsExactly("app", "great", "support", "too");
+    }
+
+    @Test
+    void keepsLettersAndDigitsOfAnyScript() {
+        assertThat(TextTerms.of("Tr\u00e8s rapide \u2014 100% \u00e9t\u00e9"))
+                .containsExactly("tr\u00e8s", "rapide", "100", "\u00e9t\u00e9");
+    }
+
+    @Test
+    void capsTheTermsOfOneAnswer() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50; i++)
+            text.append("word").append(i).append(' ');
+
+        assertThat(TextTerms.of(text.toString()))
+                .hasSize(TextTerms.MAX_TERMS_PER_ANSWER)
+                .startsWith("word0", "word1");
+    }
+
+    @Test
+    void nothingForNull() {
+        assertThat(TextTerms.of(null)).isEmpty();
+    }
+}
@@ -0,0 +1,106 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.common.exception.InvalidVoteException;
+import com.soundage.api.common.exception.VoteIngestionUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.soundage.api.poll.service.VoteJournalTest.vote;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VoteIngestionQueueTest {
+
+    @TempDir
+    Path dir;
+
+    private final VoteWriter voteWriter = mock(VoteWriter.class);
+
+    @Test
+    void transientFailureIsRetriedUntilWritten() throws Exception {
+        when(voteWriter.writeBatch(anyList()))
+                .thenThrow(new TransientDataAccessResourceException("connection refused"))
+                .thenReturn(List.of());
+        VoteIngestionQueue queue = queue(5000);
+        queue.start();
+        queue.submit(vote());
+        queue.stop();
+
+        verify(voteWriter, atLeast(2)).writeBatch(anyList());
+        verify(voteWriter, never()).write(any());
+        assertThat(journal().recover()).isEmpty();
+    }
+
+    @Test
+    void onlyTheInvalidVoteIsDropped() throws Exception {
+        VoteCommand invalid = vote();
+        VoteCommand valid = vote();
+        when(voteWriter.writeBatch(anyList())).thenThrow(new InvalidVoteException("Unknown question"));
+        when(voteWriter.write(invalid)).thenThrow(new InvalidVoteException("Unknown question"));
+        when(voteWriter.write(valid)).thenReturn(new VoteWriter.WriteResult(null, false));
+        VoteIngestionQueue queue = queue(5000);
+        queue.start();
+        queue.submit(invalid);
+        queue.submit(valid);
+        queue.stop();
+
+        verify(voteWriter).write(valid);
+        assertThat(journal().recover()).isEmpty();
+    }
+
+    @Test
+    void votesNotWrittenByShutdownStayInTheJournal() throws Exception {
+        when(voteWriter.writeBatch(anyList()))
+                .thenThrow(new TransientDataAccessResourceException("connection refused"));
+        VoteCommand vote = vote();
+        VoteIngestionQueue queue = queue(300);
+        queue.start();
+        queue.submit(vote);
+        queue.stop();
+
+        assertThat(journal().recover()).extracting(VoteJournal.Entry::command).containsExactly(vote);
+    }
+
+    @Test
+    void checkpointIsReachedOnceQueuedVotesAreWritten() {
+        when(voteWriter.writeBatch(anyList()))
+                .thenThrow(new TransientDataAccessResourceException("connection refused"))
+                .thenReturn(List.of());
+        VoteIngestionQueue queue = queue(5000);
+        queue.start();
+        queue.submit(vote());
+        long checkpoint = queue.checkpoint();
+
+        assertThat(queue.isWrittenThrough(checkpoint)).isFalse();
+        queue.stop();
+        assertThat(queue.isWrittenThrough(checkpoint)).isTrue();
+    }
+
+    @Test
+    void rejectsVotesOnceStopped() {
+        VoteIngestionQueue queue = queue(5000);
+        queue.start();
+        queue.stop();
+
+        assertThatThrownBy(() -> queue.submit(vote())).isInstanceOf(VoteIngestionUnavailableException.class);
+    }
+
+    private VoteIngestionQueue queue(long shutdownTimeoutMs) {
+        return new VoteIngestionQueue(voteWriter, journal(), "async", 100, 10, 10, shutdownTimeoutMs);
+    }
+
+    private VoteJournal journal() {
+        return new VoteJournal(true, dir.toString(), 4096, false);
+    }
+}
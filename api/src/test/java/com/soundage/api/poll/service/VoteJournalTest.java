@@ -0,0 +1,134 @@
+package com.soundage.api.poll.service;
+
+import com.soundage.api.poll.dto.AnswerInputDto;
+import com.soundage.api.poll.dto.RankingEntryDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VoteJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoversAppendedVotesInOrder() throws Exception {
+        VoteJournal journal = journal(4096);
+        journal.recover();
+        journal.open();
+        List<VoteCommand> votes = List.of(vote(), vote(), vote());
+        for (VoteCommand vote : votes) {
+            journal.append(vote);
+        }
+        journal.close();
+
+        List<VoteJournal.Entry> entries = journal(4096).recover();
+
+        assertThat(entries).extracting(VoteJournal.Entry::seq).containsExactly(1L, 2L, 3L);
+        assertThat(entries).extracting(VoteJournal.Entry::command).containsExactlyElementsOf(votes);
+    }
+
+    @Test
+    void commitOfEverythingAppendedLeavesNothingToReplay() throws Exception {
+        VoteJournal journal = journal(4096);
+        journal.recover();
+        journal.open();
+        journal.append(vote());
+        long last = journal.append(vote());
+        journal.commit(last);
+        journal.close();
+
+        assertThat(journal(4096).recover()).isEmpty();
+    }
+
+    @Test
+    void partialCommitKeepsEveryUncommittedVote() throws Exception {
+        VoteJournal journal = journal(512);
+        journal.recover();
+        journal.open();
+        List<Long> seqs = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            seqs.add(journal.append(vote()));
+        }
+        journal.commit(25);
+        journal.close();
+
+        List<Long> recovered = journal(512).recover().stream().map(VoteJournal.Entry::seq).toList();
+
+        assertThat(recovered).containsAll(seqs.subList(25, 50));
+        assertThat(recovered).isSorted();
+    }
+
+    @Test
+    void seqContinuesAfterRecovery() throws Exception {
+        VoteJournal journal = journal(4096);
+        journal.recover();
+        journal.open();
+        journal.append(vote());
+        journal.append(vote());
+        journal.close();
+
+        VoteJournal reopened = journal(4096);
+        reopened.recover();
+        reopened.open();
+
+        assertThat(reopened.append(vote())).isEqualTo(3L);
+        reopened.close();
+    }
+
+    @Test
+    void activeSegmentSurvivesCommitAfterCleanRestart() throws Exception {
+        VoteJournal journal = journal(4096);
+        journal.recover();
+        journal.open();
+        journal.commit(journal.append(vote()));
+        journal.close();
+
+        VoteJournal reopened = journal(4096);
+        assertThat(reopened.recover()).isEmpty();
+        reopened.open();
+        long first = reopened.append(vote());
+        reopened.commit(first);
+        VoteCommand last = vote();
+        long seq = reopened.append(last);
+
+        try (var files = Files.list(dir)) {
+            assertThat(files).as("active segment still linked").hasSize(1);
+        }
+        reopened.close();
+
+        List<VoteJournal.Entry> entries = journal(4096).recover();
+        assertThat(entries).extracting(VoteJournal.Entry::seq).containsExactly(seq);
+        assertThat(entries).extracting(VoteJournal.Entry::command).containsExactly(last);
+    }
+
+    private VoteJournal journal(int segmentSize) {
+        return new VoteJournal(true, dir.toString(), segmentSize, false);
+    }
+
+    static VoteCommand vote() {
+        AnswerInputDto choice = AnswerInputDto.builder()
+                .questionId(UUID.randomUUID())
+                .optionIds(List.of(UUID.randomUUID(), UUID.randomUUID()))
+                .build();
+        AnswerInputDto rating = AnswerInputDto.builder()
+                .questionId(UUID.randomUUID())
+                .numericValue(new BigDecimal("3.5"))
+                .build();
+        AnswerInputDto ranking = AnswerInputDto.builder()
+                .questionId(UUID.randomUUID())
+                .ranking(List.of(new RankingEntryDto(UUID.randomUUID(), 1), new RankingEntryDto(UUID.randomUUID(), 2)))
+                .build();
+        return new VoteCommand(UUID.randomUUID(), UUID.randomUUID(), null, "anon-1", "127.0.0.1",
+                List.of(choice, rating, ranking), Instant.now());
+    }
+}
@@ -4,3 +4,9 @@ export interface ApiResponse<T> {
   data?: T;
   timestamp?: string;
 }
+
+/** One page of a cursor-paginated list; pass nextCursor back as `cursor` for the next page. */
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+}
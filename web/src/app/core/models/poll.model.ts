@@ -126,7 +126,7 @@ export interface OptionCountDto {
   percentage: number;
 }
 
-/** Rating distribution bucket (1-5) */
+/** Rating distribution bucket (one per value on the question's scale) */
 export interface RatingBucketDto {
   value: number;
   count: number;
@@ -141,16 +141,47 @@ export interface TextResponseEntryDto {
   text: string;
 }
 
+/** A word and the number of text answers containing it */
+export interface TextTermDto {
+  term: string;
+  count: number;
+}
+
+/** Ranking result for one option */
+export interface RankingOptionResultDto {
+  optionId: string;
+  optionLabel: string;
+  imageUrl?: string;
+  bordaScore: number;
+  rankedCount: number;
+  firstPlaceCount: number;
+  meanPosition: number | null;
+  medianPosition: number | null;
+}
+
 /** Results for one question */
 export interface QuestionResultDto {
   questionId: string;
   questionTitle: string;
   type: string;
+  /** Responses that answered this question */
+  responseCount: number;
   optionCounts?: OptionCountDto[];
   ratingDistribution?: RatingBucketDto[];
   averageRating?: number;
-  textResponses?: string[];
-  textResponseEntries?: TextResponseEntryDto[];
+  /** Rating: scale from the question settings and statistics */
+  ratingMin?: number;
+  ratingMax?: number;
+  ratingStep?: number;
+  ratingCount?: number;
+  ratingStdDev?: number | null;
+  ratingMedian?: number | null;
+  ratingP90?: number | null;
+  /** Ranking: per-option scores, best Borda score first */
+  rankingResults?: RankingOptionResultDto[];
+  /** Ranking: pairwiseMatrix[i][j] = rankings that put pairwiseOptionIds[i] above pairwiseOptionIds[j] */
+  pairwiseOptionIds?: string[];
+  pairwiseMatrix?: number[][];
 }
 
 /** Voter info for results (name, email or Anonymous) */
@@ -160,11 +191,12 @@ export interface VoterInfoDto {
   anonymous: boolean;
 }
 
-/** Full poll results for stats/charts */
+/** Poll results for stats/charts (aggregates only; voters and text answers are paged separately) */
 export interface PollResultsDto {
   pollId: string;
   pollTitle: string;
   totalResponses: number;
+  /** Set when the results are segmented by these options */
+  filterOptionIds?: string[] | null;
   questionResults: QuestionResultDto[];
-  voters?: VoterInfoDto[];
 }
@@ -82,6 +82,15 @@ export class AuthService {
   }
 
   logout(): void {
+    const refresh = this.refreshToken();
+    if (refresh) {
+      // Revokes the session server-side; local sign-out does not wait for it
+      const body: RefreshTokenRequest = { refreshToken: refresh };
+      this.http
+        .post<ApiResponse<void>>(`${this.api}/logout`, body)
+        .pipe(catchError(() => of(null)))
+        .subscribe();
+    }
     this.accessToken.set(null);
     this.refreshToken.set(null);
     this.currentUser.set(null);
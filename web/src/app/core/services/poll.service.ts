@@ -2,11 +2,14 @@ import { Injectable } from '@angular/core';
 import { HttpClient, HttpErrorResponse } from '@angular/common/http';
 import { Observable, catchError, of } from 'rxjs';
 import { environment } from '../../../environments/environment';
-import type { ApiResponse } from '../models/api-response.model';
+import type { ApiResponse, CursorPage } from '../models/api-response.model';
 import type {
   PollDto,
   PollDetailDto,
   PollResultsDto,
+  TextResponseEntryDto,
+  TextTermDto,
+  VoterInfoDto,
   CreatePollRequest,
   UpdatePollRequest,
   SubmitVoteRequest,
@@ -20,11 +23,12 @@ export class PollService {
 
   constructor(private http: HttpClient) {}
 
-  /** List active polls (public). */
-  listActive(): Observable<ApiResponse<PollDto[]>> {
+  /** One page of active polls, newest first (public). Omit cursor for the first page. */
+  listActive(cursor?: string | null): Observable<ApiResponse<CursorPage<PollDto>>> {
+    const qs = cursor ? '?cursor=' + encodeURIComponent(cursor) : '';
     return this.http
-      .get<ApiResponse<PollDto[]>>(this.api)
-      .pipe(catchError((err) => this.handleError<PollDto[]>(err)));
+      .get<ApiResponse<CursorPage<PollDto>>>(`${this.api}${qs}`)
+      .pipe(catchError((err) => this.handleError<CursorPage<PollDto>>(err)));
   }
 
   /** Get poll by id with questions (public). Pass anonymousId when not logged in so hasVoted is accurate. */
@@ -79,13 +83,58 @@ export class PollService {
       .pipe(catchError((err) => this.handleError<PollDetailDto>(err)));
   }
 
-  /** Admin: get poll results (stats for charts). */
-  getResults(pollId: string): Observable<ApiResponse<PollResultsDto>> {
+  /**
+   * Admin: get poll results (stats for charts). With filterOptionIds, only the
+   * voters who selected those options are counted (choice questions only).
+   */
+  getResults(pollId: string, filterOptionIds?: string[]): Observable<ApiResponse<PollResultsDto>> {
+    const qs = filterOptionIds?.length ? '?filter=' + filterOptionIds.map(encodeURIComponent).join(',') : '';
     return this.http
-      .get<ApiResponse<PollResultsDto>>(`${this.adminApi}/${pollId}/results`)
+      .get<ApiResponse<PollResultsDto>>(`${this.adminApi}/${pollId}/results${qs}`)
       .pipe(catchError((err) => this.handleError<PollResultsDto>(err)));
   }
 
+  /** Admin: download all raw responses (one row per response) as CSV or NDJSON. */
+  exportResponses(pollId: string, format: 'csv' | 'ndjson'): Observable<Blob> {
+    return this.http.get(`${this.adminApi}/${pollId}/export?format=${format}`, { responseType: 'blob' });
+  }
+
+  /** Admin: one page of voters (oldest first). Omit cursor for the first page. */
+  getVoters(pollId: string, cursor?: string | null): Observable<ApiResponse<CursorPage<VoterInfoDto>>> {
+    const qs = cursor ? '?cursor=' + encodeURIComponent(cursor) : '';
+    return this.http
+      .get<ApiResponse<CursorPage<VoterInfoDto>>>(`${this.adminApi}/${pollId}/results/voters${qs}`)
+      .pipe(catchError((err) => this.handleError<CursorPage<VoterInfoDto>>(err)));
+  }
+
+  /**
+   * Admin: one page of answers to a text question. Omit cursor for the first page;
+   * with a query only matching answers are returned (full-text search).
+   */
+  getTextResponses(
+    pollId: string,
+    questionId: string,
+    cursor?: string | null,
+    query?: string | null
+  ): Observable<ApiResponse<CursorPage<TextResponseEntryDto>>> {
+    const params: string[] = [];
+    if (cursor) params.push('cursor=' + encodeURIComponent(cursor));
+    if (query) params.push('q=' + encodeURIComponent(query));
+    const qs = params.length ? '?' + params.join('&') : '';
+    return this.http
+      .get<ApiResponse<CursorPage<TextResponseEntryDto>>>(
+        `${this.adminApi}/${pollId}/results/questions/${questionId}/text${qs}`
+      )
+      .pipe(catchError((err) => this.handleError<CursorPage<TextResponseEntryDto>>(err)));
+  }
+
+  /** Admin: most frequent words in the answers to a text question. */
+  getTopTerms(pollId: string, questionId: string, limit = 30): Observable<ApiResponse<TextTermDto[]>> {
+    return this.http
+      .get<ApiResponse<TextTermDto[]>>(`${this.adminApi}/${pollId}/results/questions/${questionId}/terms?limit=${limit}`)
+      .pipe(catchError((err) => this.handleError<TextTermDto[]>(err)));
+  }
+
   /** Admin: create poll. */
   create(request: CreatePollRequest): Observable<ApiResponse<PollDetailDto>> {
     return this.http
@@ -6,8 +6,20 @@ import type {
   PollResultsDto,
   QuestionResultDto,
   OptionCountDto,
+  TextResponseEntryDto,
+  TextTermDto,
+  VoterInfoDto,
 } from '../../../core/models/poll.model';
 
+/** Loaded pages of a cursor-paginated list. */
+interface PagedList<T> {
+  items: T[];
+  nextCursor: string | null;
+  loading: boolean;
+  /** Search query the items were loaded for, if any */
+  query?: string;
+}
+
 @Component({
   selector: 'app-poll-results',
   standalone: true,
@@ -23,6 +35,12 @@ export class PollResultsComponent implements OnInit {
   results = null as PollResultsDto | null;
   loading = true;
   error = '';
+  exporting = false;
+
+  /** Voters and text answers are fetched page by page, separately from the aggregates. */
+  voters: PagedList<VoterInfoDto> = { items: [], nextCursor: null, loading: false };
+  textResponses: Record<string, PagedList<TextResponseEntryDto>> = {};
+  topTerms: Record<string, TextTermDto[]> = {};
 
   /** Expose Math for template (e.g. Math.max). */
   readonly Math = Math;
@@ -53,6 +71,10 @@ export class PollResultsComponent implements OnInit {
     return (type ?? '').toLowerCase() === 'text';
   }
 
+  isRanking(type: string): boolean {
+    return (type ?? '').toLowerCase() === 'ranking';
+  }
+
   /** Whether any option in the list has an image URL (for grid layout and img display). */
   hasOptionImages(optionCounts: QuestionResultDto['optionCounts']): boolean {
     return optionCounts?.some((o) => !!(o as OptionCountDto).imageUrl) ?? false;
@@ -64,6 +86,90 @@ export class PollResultsComponent implements OnInit {
     return url && typeof url === 'string' ? url : null;
   }
 
+  textEntries(question: QuestionResultDto): PagedList<TextResponseEntryDto> | undefined {
+    return this.textResponses[question.questionId];
+  }
+
+  exportResponses(format: 'csv' | 'ndjson'): void {
+    if (!this.results || this.exporting) return;
+    const pollId = this.results.pollId;
+    this.exporting = true;
+    this.pollService.exportResponses(pollId, format).subscribe({
+      next: (blob) => {
+        const url = URL.createObjectURL(blob);
+        const a = document.createElement('a');
+        a.href = url;
+        a.download = `poll-${pollId}.${format}`;
+        a.click();
+        URL.revokeObjectURL(url);
+        this.exporting = false;
+        this.cdr.detectChanges();
+      },
+      error: () => {
+        this.exporting = false;
+        this.cdr.detectChanges();
+      },
+    });
+  }
+
+  loadMoreVoters(): void {
+    if (!this.results || this.voters.loading) return;
+    this.voters.loading = true;
+    this.pollService.getVoters(this.results.pollId, this.voters.nextCursor).subscribe((res) => {
+      this.voters.loading = false;
+      if (res?.success && res.data) {
+        this.voters.items.push(...res.data.items);
+        this.voters.nextCursor = res.data.nextCursor;
+      }
+      this.cdr.detectChanges();
+    });
+  }
+
+  loadMoreText(question: QuestionResultDto): void {
+    if (!this.results) return;
+    const list = (this.textResponses[question.questionId] ??= {
+      items: [],
+      nextCursor: null,
+      loading: false,
+    });
+    if (list.loading) return;
+    list.loading = true;
+    this.pollService
+      .getTextResponses(this.results.pollId, question.questionId, list.nextCursor, list.query)
+      .subscribe((res) => {
+        list.loading = false;
+        // Ignore a page that arrived after the search was changed
+        if (this.textResponses[question.questionId] !== list) return;
+        if (res?.success && res.data) {
+          list.items.push(...res.data.items);
+          list.nextCursor = res.data.nextCursor;
+        }
+        this.cdr.detectChanges();
+      });
+  }
+
+  /** Restarts the answer list of a text question with a search query (blank shows all). */
+  searchText(question: QuestionResultDto, query: string): void {
+    const trimmed = query.trim();
+    this.textResponses[question.questionId] = {
+      items: [],
+      nextCursor: null,
+      loading: false,
+      query: trimmed || undefined,
+    };
+    this.loadMoreText(question);
+  }
+
+  loadTopTerms(question: QuestionResultDto): void {
+    if (!this.results) return;
+    this.pollService.getTopTerms(this.results.pollId, question.questionId).subscribe((res) => {
+      if (res?.success && res.data) {
+        this.topTerms[question.questionId] = res.data;
+        this.cdr.detectChanges();
+      }
+    });
+  }
+
   ngOnInit(): void {
     const id = this.route.snapshot.paramMap.get('id');
     if (!id) {
@@ -77,6 +183,13 @@ export class PollResultsComponent implements OnInit {
         this.loading = false;
         if (res?.success && res.data) {
           this.results = res.data;
+          this.loadMoreVoters();
+          for (const q of res.data.questionResults) {
+            if (this.isText(q.type) && q.responseCount > 0) {
+              this.loadMoreText(q);
+              this.loadTopTerms(q);
+            }
+          }
         } else {
           this.error = res?.message ?? 'Failed to load results.';
         }
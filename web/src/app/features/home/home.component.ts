@@ -165,21 +165,31 @@ export class HomeComponent implements OnInit {
         },
       });
     } else {
-      this.pollService.listActive().subscribe({
-        next: (res) => {
-          const polls = res?.success && res?.data ? res.data : [];
-          this.polls.set(polls);
-          this.stats.set(this.computeStats(polls, 0));
-          this.loading.set(false);
-        },
-        error: () => {
-          this.error.set('Failed to load dashboard.');
-          this.loading.set(false);
-        },
-      });
+      this.loadActivePolls(null, []);
     }
   }
 
+  /** Follows the listing's cursor so the stats count every open poll, not just the first page. */
+  private loadActivePolls(cursor: string | null, loaded: PollDto[]): void {
+    this.pollService.listActive(cursor).subscribe({
+      next: (res) => {
+        const polls = loaded.concat(res?.success && res?.data ? res.data.items : []);
+        const nextCursor = res?.success && res?.data ? res.data.nextCursor : null;
+        if (nextCursor) {
+          this.loadActivePolls(nextCursor, polls);
+          return;
+        }
+        this.polls.set(polls);
+        this.stats.set(this.computeStats(polls, 0));
+        this.loading.set(false);
+      },
+      error: () => {
+        this.error.set('Failed to load dashboard.');
+        this.loading.set(false);
+      },
+    });
+  }
+
   getPollStatus(p: PollDto): 'active' | 'ended' | 'not_started' {
     const now = new Date();
     const start = p.startsAt ? new Date(p.startsAt) : null;
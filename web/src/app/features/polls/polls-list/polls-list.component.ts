@@ -15,7 +15,9 @@ export class PollsListComponent implements OnInit {
   private pollService = inject(PollService);
   private cdr = inject(ChangeDetectorRef);
   polls: PollDto[] = [];
+  nextCursor: string | null = null;
   loading = true;
+  loadingMore = false;
   error = '';
   readonly skeletonCount = 3;
 
@@ -23,8 +25,9 @@ export class PollsListComponent implements OnInit {
     this.pollService.listActive().subscribe({
       next: (res) => {
         this.loading = false;
-        if (res?.success && Array.isArray(res.data)) {
-          this.polls = res.data;
+        if (res?.success && res.data) {
+          this.polls = res.data.items;
+          this.nextCursor = res.data.nextCursor;
         } else {
           this.error = res?.message ?? 'Failed to load polls.';
         }
@@ -38,6 +41,19 @@ export class PollsListComponent implements OnInit {
     });
   }
 
+  loadMore(): void {
+    if (!this.nextCursor || this.loadingMore) return;
+    this.loadingMore = true;
+    this.pollService.listActive(this.nextCursor).subscribe((res) => {
+      this.loadingMore = false;
+      if (res?.success && res.data) {
+        this.polls.push(...res.data.items);
+        this.nextCursor = res.data.nextCursor;
+      }
+      this.cdr.detectChanges();
+    });
+  }
+
   formatDate(iso?: string): string {
     if (!iso) return '—';
     const d = new Date(iso);